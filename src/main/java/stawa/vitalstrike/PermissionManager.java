@@ -3,32 +3,87 @@ package stawa.vitalstrike;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.permissions.PermissionAttachmentInfo;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import stawa.vitalstrike.indicators.DamageFormats;
+import stawa.vitalstrike.indicators.DamageTemplate;
+import stawa.vitalstrike.indicators.DamageTemplates;
+
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Manages permissions for VitalStrike plugin, particularly for group-based
  * damage formats.
  * Handles loading, checking, and retrieving group permissions from
  * configuration.
+ *
+ * Damage formats are resolved and compiled for every damage cause when the
+ * permissions are loaded. The formats a player sees are then resolved once
+ * and cached per player together with the groups the player had at the time,
+ * so a hit only checks the group permissions again and reads the player
+ * database only when they changed.
  */
 public class PermissionManager {
     private final JavaPlugin plugin;
+    private final DamageTemplates damageTemplates;
     private Map<String, String> groupPermissions;
     private Map<String, Map<String, String>> groupDamageFormats;
     private static final String DEFAULT_GROUP = "default";
+    private static final EntityDamageEvent.DamageCause[] CAUSES = EntityDamageEvent.DamageCause.values();
+
+    private boolean simpleFormatsMode = true;
+    private DamageTemplate[] simpleCauseFormats = new DamageTemplate[0];
+    private List<GroupCauseFormats> groupCauseFormats = new ArrayList<>();
+    private DamageTemplate[] defaultGroupCauseFormats;
+
+    private final Map<UUID, PlayerFormats> playerFormats = new HashMap<>();
+    private DamageFormats simpleBase;
+    private DamageFormats simpleFormats;
+
+    /**
+     * The compiled damage formats of a group, indexed by damage cause ordinal.
+     */
+    private static class GroupCauseFormats {
+        final String permission;
+        final DamageTemplate[] formats;
+
+        GroupCauseFormats(String permission, DamageTemplate[] formats) {
+            this.permission = permission;
+            this.formats = formats;
+        }
+    }
+
+    /**
+     * The damage formats resolved for a player, with the permission state
+     * they were resolved for.
+     */
+    private static class PlayerFormats {
+        final long groups;
+        final DamageFormats base;
+        final DamageFormats formats;
+
+        PlayerFormats(long groups, DamageFormats base, DamageFormats formats) {
+            this.groups = groups;
+            this.base = base;
+            this.formats = formats;
+        }
+    }
 
     /**
      * Constructs a new PermissionManager.
      *
-     * @param plugin the JavaPlugin instance
+     * @param plugin          the JavaPlugin instance
+     * @param damageTemplates the registry damage formats are compiled in
      */
-    public PermissionManager(JavaPlugin plugin) {
+    public PermissionManager(JavaPlugin plugin, DamageTemplates damageTemplates) {
         this.plugin = plugin;
+        this.damageTemplates = damageTemplates;
         this.groupPermissions = new HashMap<>();
         this.groupDamageFormats = new HashMap<>();
         loadPermissions();
@@ -40,6 +95,74 @@ public class PermissionManager {
     public void loadPermissions() {
         FileConfiguration config = plugin.getConfig();
         loadGroupDamageFormats(config);
+        loadCauseFormats(config);
+        playerFormats.clear();
+        simpleBase = null;
+        simpleFormats = null;
+    }
+
+    /**
+     * Forgets the damage formats resolved for a player, so they are resolved
+     * again on the next hit. Called when the player leaves or their stored
+     * permissions change.
+     *
+     * @param player the player
+     */
+    public void invalidate(Player player) {
+        playerFormats.remove(player.getUniqueId());
+    }
+
+    /**
+     * Resolves the damage format of every damage cause for the simple formats
+     * and for each group, including the fallback to the default format.
+     *
+     * @param config the plugin configuration
+     */
+    private void loadCauseFormats(FileConfiguration config) {
+        simpleFormatsMode = "simple-damage-formats".equals(
+                config.getString("damage-indicator", "simple-damage-formats"));
+        simpleCauseFormats = resolveCauseFormats(config.getConfigurationSection("simple-damage-formats"));
+
+        List<GroupCauseFormats> groups = new ArrayList<>();
+        DamageTemplate[] defaultGroup = null;
+        ConfigurationSection groupsSection = config.getConfigurationSection("group-damage-formats");
+        if (groupsSection != null) {
+            for (String groupKey : groupsSection.getKeys(false)) {
+                if (!groupKey.equals(DEFAULT_GROUP)) {
+                    groups.add(new GroupCauseFormats("vitalstrike.group." + groupKey,
+                            resolveCauseFormats(groupsSection.getConfigurationSection(groupKey + ".damage-formats"))));
+                }
+            }
+            if (!config.getBoolean("group-damage-formats.default.use-simple-formats", false)) {
+                defaultGroup = resolveCauseFormats(groupsSection.getConfigurationSection("default.damage-formats"));
+            }
+        }
+        groupCauseFormats = groups;
+        defaultGroupCauseFormats = defaultGroup;
+    }
+
+    /**
+     * Resolves and compiles the format of every damage cause in a damage
+     * formats section, falling back to the section's default format.
+     *
+     * @param section the damage formats section, or null
+     * @return the templates indexed by damage cause ordinal, null where the
+     *         section has no format
+     */
+    private DamageTemplate[] resolveCauseFormats(ConfigurationSection section) {
+        DamageTemplate[] formats = new DamageTemplate[CAUSES.length];
+        if (section == null) {
+            return formats;
+        }
+        String fallback = section.getString("default");
+        for (EntityDamageEvent.DamageCause cause : CAUSES) {
+            String format = section.getString(cause.name().toLowerCase());
+            if (format == null) {
+                format = fallback;
+            }
+            formats[cause.ordinal()] = format != null ? damageTemplates.get(format) : null;
+        }
+        return formats;
     }
 
     /**
@@ -114,100 +237,94 @@ public class PermissionManager {
     }
 
     /**
-     * Gets the damage format for a player based on their permissions.
+     * Gets the damage formats a player's hits are shown with, resolving them
+     * only when the player's group permissions or the base formats changed
+     * since the last hit. Must be called on the main thread.
      *
-     * @param player        the player
-     * @param damageType    the type of damage
-     * @param defaultFormat the default format to use if no permission-based format
-     *                      is found
-     * @return the formatted damage string
-     */
-    public String getDamageFormat(Player player, String damageType, String defaultFormat) {
-        String damageIndicatorType = plugin.getConfig().getString("damage-indicator", "simple-damage-formats");
-
-        if ("simple-damage-formats".equals(damageIndicatorType)) {
-            String format = plugin.getConfig().getString("simple-damage-formats." + damageType);
-            if (format != null) {
-                return format;
+     * @param player the attacking player
+     * @param base   the formats of the configuration
+     * @return the base formats with the player's group formats applied
+     */
+    public DamageFormats getDamageFormats(Player player, DamageFormats base) {
+        if (simpleFormatsMode) {
+            if (simpleBase != base) {
+                simpleBase = base;
+                simpleFormats = base.override(simpleCauseFormats);
             }
+            return simpleFormats;
+        }
 
-            format = plugin.getConfig().getString("simple-damage-formats.default");
-            if (format != null) {
-                return format;
+        // Bits of groups beyond the 64th share a bit, which only makes a
+        // change of those groups go unnoticed until the player is invalidated.
+        long groups = 0;
+        for (int i = 0; i < groupCauseFormats.size(); i++) {
+            if (player.hasPermission(groupCauseFormats.get(i).permission)) {
+                groups |= 1L << i;
             }
-
-            return defaultFormat;
+        }
+        PlayerFormats cached = playerFormats.get(player.getUniqueId());
+        if (cached != null && cached.groups == groups && cached.base == base) {
+            return cached.formats;
         }
 
-        ConfigurationSection groupsSection = plugin.getConfig().getConfigurationSection("group-damage-formats");
-        if (groupsSection != null) {
-            for (String groupKey : groupsSection.getKeys(false)) {
-                if (!groupKey.equals("default")) {
-                    String permission = "vitalstrike.group." + groupKey;
-
-                    boolean hasPermission = false;
-                    if (player instanceof Player) {
-                        hasPermission = hasExplicitPermission(player, permission);
-                    }
-
-                    if (hasPermission) {
-                        String format = plugin.getConfig().getString(
-                                "group-damage-formats." + groupKey + ".damage-formats." + damageType);
-
-                        if (format != null) {
-                            return format;
-                        }
-
-                        format = plugin.getConfig().getString(
-                                "group-damage-formats." + groupKey + ".damage-formats.default");
-
-                        if (format != null) {
-                            return format;
-                        }
-                    }
-                }
+        List<String> storedPermissions = getStoredPermissions(player);
+        List<GroupCauseFormats> heldGroups = new ArrayList<>();
+        for (GroupCauseFormats group : groupCauseFormats) {
+            if (hasExplicitPermission(player, group.permission, storedPermissions)) {
+                heldGroups.add(group);
             }
-
-            boolean useSimpleFormats = plugin.getConfig().getBoolean("group-damage-formats.default.use-simple-formats",
-                    false);
-
-            if (!useSimpleFormats) {
-                String format = plugin.getConfig()
-                        .getString("group-damage-formats.default.damage-formats." + damageType);
-                if (format != null) {
-                    return format;
-                }
-
-                format = plugin.getConfig().getString("group-damage-formats.default.damage-formats.default");
-                if (format != null) {
-                    return format;
+        }
+        DamageTemplate[] overrides = new DamageTemplate[CAUSES.length];
+        for (int ordinal = 0; ordinal < overrides.length; ordinal++) {
+            for (GroupCauseFormats group : heldGroups) {
+                if (group.formats[ordinal] != null) {
+                    overrides[ordinal] = group.formats[ordinal];
+                    break;
                 }
             }
+            if (overrides[ordinal] == null && defaultGroupCauseFormats != null) {
+                overrides[ordinal] = defaultGroupCauseFormats[ordinal];
+            }
         }
-
-        return defaultFormat;
+        DamageFormats formats = base.override(overrides);
+        playerFormats.put(player.getUniqueId(), new PlayerFormats(groups, base, formats));
+        return formats;
     }
 
     /**
-     * Checks if a player has an explicitly assigned permission (not inherited from
-     * OP).
-     * 
-     * @param player     the player to check
-     * @param permission the permission to check
-     * @return true if the player has the permission explicitly assigned
+     * Gets the permissions stored for a player in the player database.
+     *
+     * @param player the player
+     * @return the stored permissions, or null if none are stored
      */
-    private boolean hasExplicitPermission(Player player, String permission) {
+    private List<String> getStoredPermissions(Player player) {
         if (plugin instanceof VitalStrike) {
             VitalStrike vs = (VitalStrike) plugin;
             PlayerManager playerManager = vs.getPlayerManager();
             if (playerManager != null) {
                 String path = "players." + player.getUniqueId() + ".permissions";
                 if (playerManager.getDatabase().contains(path)) {
-                    List<String> permissions = playerManager.getDatabase().getStringList(path);
-                    return permissions.contains(permission);
+                    return playerManager.getDatabase().getStringList(path);
                 }
             }
         }
+        return null;
+    }
+
+    /**
+     * Checks if a player has an explicitly assigned permission (not inherited from
+     * OP).
+     * 
+     * @param player            the player to check
+     * @param permission        the permission to check
+     * @param storedPermissions the permissions stored for the player in the
+     *                          player database, or null if none are stored
+     * @return true if the player has the permission explicitly assigned
+     */
+    private boolean hasExplicitPermission(Player player, String permission, List<String> storedPermissions) {
+        if (storedPermissions != null) {
+            return storedPermissions.contains(permission);
+        }
 
         if (player.isOp()) {
             for (PermissionAttachmentInfo perm : player.getEffectivePermissions()) {
@@ -6,12 +6,14 @@ import org.bukkit.entity.Player;
 
 import stawa.vitalstrike.Errors.ConfigurationException;
 import stawa.vitalstrike.Errors.DatabaseException;
+import stawa.vitalstrike.indicators.DamageTemplate;
 import stawa.vitalstrike.logger.VitalLogger;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -34,8 +36,23 @@ public class PlayerManager {
 
     private final HashMap<UUID, String> playerElements = new HashMap<>();
     private final Map<UUID, Boolean> playerSettings;
-    private final Map<UUID, String> playerStyles;
+    private final Map<UUID, PlayerStyle> playerStyles;
     private Map<UUID, Boolean> playerHologramPreferences = new HashMap<>();
+    private volatile DamageTemplate[] customTemplates = new DamageTemplate[0];
+
+    /**
+     * The damage style of a loaded player, with its compiled template if the
+     * player chose it themselves
+     */
+    private static final class PlayerStyle {
+        final String style;
+        final DamageTemplate template;
+
+        PlayerStyle(String style, DamageTemplate template) {
+            this.style = style;
+            this.template = template;
+        }
+    }
 
     /**
      * Creates a new PlayerManager instance
@@ -163,6 +180,9 @@ public class PlayerManager {
             vs.resetPlayerCombo(player.getUniqueId());
         }
         setPlayerSetting(player, enabled);
+        if (plugin.getViewerIndex() != null) {
+            plugin.getViewerIndex().refresh(player);
+        }
     }
 
     /**
@@ -175,6 +195,27 @@ public class PlayerManager {
         return getPlayerStyle(player);
     }
 
+    /**
+     * Gets the compiled damage style a player chose themselves
+     * 
+     * @param player the player to check
+     * @return the player's custom style template, or null if they never set one
+     */
+    public DamageTemplate getCustomTemplate(Player player) {
+        return getPlayerStyleEntry(player).template;
+    }
+
+    /**
+     * Gets the distinct custom style templates of the loaded players, so hits
+     * can be rendered in every style off the main thread
+     * 
+     * @return the custom style templates, never modified after they are
+     *         returned
+     */
+    public DamageTemplate[] getCustomTemplates() {
+        return customTemplates;
+    }
+
     /**
      * Sets the player's custom damage style with validation
      * 
@@ -198,8 +239,8 @@ public class PlayerManager {
         UUID uuid = player.getUniqueId();
         String path = PLAYERS_PATH + uuid;
         playerSettings.put(uuid, database.getBoolean(path + ENABLED_PATH, true));
-        playerStyles.put(uuid, database.getString(path + STYLE_PATH,
-                plugin.getConfig().getString("damage-format", "<red>-%.1f ❤")));
+        playerStyles.put(uuid, readPlayerStyle(uuid));
+        updateCustomTemplates();
     }
 
     /**
@@ -211,6 +252,7 @@ public class PlayerManager {
         UUID uuid = player.getUniqueId();
         playerSettings.remove(uuid);
         playerStyles.remove(uuid);
+        updateCustomTemplates();
     }
 
     /**
@@ -240,9 +282,46 @@ public class PlayerManager {
      * Gets a player's style from cache or database
      */
     private String getPlayerStyle(Player player) {
+        return getPlayerStyleEntry(player).style;
+    }
+
+    /**
+     * Gets a player's style entry from cache or database
+     */
+    private PlayerStyle getPlayerStyleEntry(Player player) {
         UUID uuid = player.getUniqueId();
-        return playerStyles.computeIfAbsent(uuid, key -> database.getString(PLAYERS_PATH + key + STYLE_PATH,
-                plugin.getConfig().getString("damage-format", "<red>-%.1f ❤")));
+        PlayerStyle style = playerStyles.get(uuid);
+        if (style == null) {
+            style = readPlayerStyle(uuid);
+            playerStyles.put(uuid, style);
+            updateCustomTemplates();
+        }
+        return style;
+    }
+
+    /**
+     * Reads a player's style from the database, falling back to the default
+     * damage format when they never set one
+     */
+    private PlayerStyle readPlayerStyle(UUID uuid) {
+        String customStyle = database.getString(PLAYERS_PATH + uuid + STYLE_PATH);
+        if (customStyle != null) {
+            return new PlayerStyle(customStyle, plugin.getDamageTemplates().get(customStyle));
+        }
+        return new PlayerStyle(plugin.getConfig().getString("damage-format", "<red>-%.1f ❤"), null);
+    }
+
+    /**
+     * Collects the distinct custom style templates of the loaded players
+     */
+    private void updateCustomTemplates() {
+        Map<String, DamageTemplate> templates = new LinkedHashMap<>();
+        for (PlayerStyle style : playerStyles.values()) {
+            if (style.template != null) {
+                templates.putIfAbsent(style.style, style.template);
+            }
+        }
+        customTemplates = templates.values().toArray(new DamageTemplate[0]);
     }
 
     /**
@@ -250,7 +329,8 @@ public class PlayerManager {
      */
     private void setPlayerStyle(Player player, String style) {
         UUID uuid = player.getUniqueId();
-        playerStyles.put(uuid, style);
+        playerStyles.put(uuid, new PlayerStyle(style, plugin.getDamageTemplates().get(style)));
+        updateCustomTemplates();
         database.set(PLAYERS_PATH + uuid + STYLE_PATH, style);
         try {
             saveDatabase();
@@ -0,0 +1,505 @@
+package stawa.vitalstrike;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.Particle;
+import org.bukkit.Registry;
+import org.bukkit.Sound;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.entity.EntityDamageEvent;
+
+import stawa.vitalstrike.indicators.AnimationSettings;
+import stawa.vitalstrike.indicators.DamageFormats;
+import stawa.vitalstrike.indicators.DamageTemplate;
+import stawa.vitalstrike.indicators.DamageTemplates;
+import stawa.vitalstrike.indicators.Direction;
+import stawa.vitalstrike.indicators.Easing;
+import stawa.vitalstrike.indicators.FidelityTier;
+import stawa.vitalstrike.logger.VitalLogger;
+
+/**
+ * Immutable snapshot of the plugin configuration.
+ *
+ * A snapshot is built and validated once on enable and on every reload, and
+ * the plugin publishes it through a single volatile reference. Event handlers
+ * only read its final fields, so a reload is an atomic swap and never exposes
+ * a half updated configuration. Invalid sounds and particles are reported
+ * once while the snapshot is built and are then simply skipped.
+ */
+final class Settings {
+    private static final double CRITICAL_CHANCE = 0.2;
+
+    final boolean enabled;
+    final boolean updateCheckerEnabled;
+
+    final Set<EntityType> targetExcludedTypes;
+    final Set<String> targetDisabledWorlds;
+    final String targetExcludeTag;
+    final boolean targetPlayerInvolvedOnly;
+    final boolean targetNamedOnly;
+
+    final boolean comboEnabled;
+    final long comboResetTime;
+
+    final boolean comboDecayEnabled;
+    final int comboDecayTime;
+    final int comboDecayRate;
+    final int comboDecayInterval;
+    final int comboDecayMinimum;
+
+    final boolean comboMultiplierEnabled;
+    final double comboMultiplierBase;
+    final double comboMultiplierPerCombo;
+    final double comboMultiplierMax;
+    final Map<String, Double> rankMultipliers;
+
+    final boolean comboHologramEnabled;
+    final int comboHologramMinCombo;
+    final double comboHologramDuration;
+    final String comboHologramFormat;
+    final double comboHologramHeight;
+
+    final String comboFormat;
+    final String multiplierFormat;
+    final String decayWarningFormat;
+
+    final boolean comboRankEnabled;
+    final String rankFormat;
+    final Map<String, Integer> rankThresholds;
+    final Map<String, String> rankColors;
+
+    final boolean comboEffectsEnabled;
+    final boolean comboSoundEnabled;
+    final Sound comboUpSound;
+    final Sound comboMilestoneSound;
+    final float comboSoundVolume;
+    final float comboSoundPitch;
+    final boolean comboParticlesEnabled;
+    final Particle comboParticle;
+    final int comboParticleCount;
+
+    final double displayDuration;
+    final double displayX;
+    final double displayY;
+    final double displayRandomOffset;
+    final boolean displayAttach;
+    final AnimationSettings animation;
+    final AnimationSettings keyframeAnimation;
+
+    final double lodFullDistance;
+    final double lodCutoffDistance;
+    final AnimationSettings staticAnimation;
+
+    final boolean poolEnabled;
+    final int poolMinSize;
+    final int poolMaxSize;
+    final long poolIdleTimeout;
+    final int cacheSize;
+
+    final boolean dotEnabled;
+    final long dotInterval;
+    final long dotEndDelay;
+    final Set<EntityDamageEvent.DamageCause> dotCauses;
+
+    final boolean clusterEnabled;
+    final Set<EntityDamageEvent.DamageCause> clusterCauses;
+    final String clusterVictimCountFormat;
+
+    final boolean viewerRateEnabled;
+    final double viewerRatePerSecond;
+    final int viewerRateBurst;
+
+    final boolean budgetEnabled;
+    final int budgetMaxLive;
+
+    final boolean lanesEnabled;
+    final int laneCount;
+    final double laneSpacing;
+
+    final boolean burstEnabled;
+    final long burstWindow;
+    final String burstHitCountFormat;
+
+    final boolean governorEnabled;
+    final double governorStepDownMspt;
+    final double governorStepUpMspt;
+    final int governorSamples;
+    final FidelityTier governorLowestTier;
+
+    final boolean densityEnabled;
+    final int densityMaxLive;
+    final double densityMaxRate;
+    final boolean densitySummary;
+    final String densitySummaryFormat;
+    final long densitySummaryDuration;
+
+    /**
+     * The compiled damage format of every damage cause, with the critical
+     * format of player attacks.
+     */
+    final DamageFormats damageFormats;
+    /**
+     * The sound of every damage cause, indexed by ordinal, or null for causes
+     * without a sound.
+     */
+    final Sound[] causeSounds;
+    final float damageSoundVolume;
+    final float damageSoundPitch;
+
+    /**
+     * Builds a snapshot from the given configuration.
+     *
+     * @param config          the plugin configuration
+     * @param logger          the logger invalid entries are reported to
+     * @param damageTemplates the registry damage formats are compiled in
+     */
+    Settings(FileConfiguration config, VitalLogger logger, DamageTemplates damageTemplates) {
+        enabled = config.getBoolean("enabled", true);
+        updateCheckerEnabled = config.getBoolean("update-checker.enabled", true);
+
+        Set<EntityType> excludedTypes = EnumSet.noneOf(EntityType.class);
+        List<String> typeNames = config.isList("targets.excluded-types")
+                ? config.getStringList("targets.excluded-types")
+                : List.of("ARMOR_STAND");
+        for (String typeName : typeNames) {
+            try {
+                excludedTypes.add(EntityType.valueOf(typeName.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid entity type in targets.excluded-types: " + typeName);
+            }
+        }
+        targetExcludedTypes = Collections.unmodifiableSet(excludedTypes);
+        targetDisabledWorlds = Set.copyOf(config.getStringList("targets.disabled-worlds"));
+        targetExcludeTag = config.getString("targets.exclude-tag", "");
+        targetPlayerInvolvedOnly = config.getBoolean("targets.player-involved-only", false);
+        targetNamedOnly = config.getBoolean("targets.named-only", false);
+
+        comboEnabled = config.getBoolean("combo.enabled", true);
+        comboResetTime = config.getLong("combo.reset-time", 3) * 1000;
+
+        comboDecayEnabled = config.getBoolean("combo.decay.enabled", true);
+        comboDecayTime = config.getInt("combo.decay.time", 10);
+        comboDecayRate = config.getInt("combo.decay.rate", 1);
+        comboDecayInterval = config.getInt("combo.decay.interval", 1);
+        comboDecayMinimum = config.getInt("combo.decay.minimum", 0);
+
+        comboMultiplierEnabled = config.getBoolean("combo.multiplier.enabled", true);
+        comboMultiplierBase = config.getDouble("combo.multiplier.base", 1.0);
+        comboMultiplierPerCombo = config.getDouble("combo.multiplier.per-combo", 0.1);
+        comboMultiplierMax = config.getDouble("combo.multiplier.max", 3.0);
+        Map<String, Double> multipliers = new HashMap<>();
+        ConfigurationSection rankMultSection = config.getConfigurationSection("combo.multiplier.ranks");
+        if (rankMultSection != null) {
+            for (String rank : rankMultSection.getKeys(false)) {
+                multipliers.put(rank, rankMultSection.getDouble(rank));
+            }
+        }
+        rankMultipliers = Collections.unmodifiableMap(multipliers);
+
+        comboHologramEnabled = config.getBoolean("combo.display.hologram.enabled", true);
+        comboHologramMinCombo = config.getInt("combo.display.hologram.min-combo", 10);
+        comboHologramDuration = config.getDouble("combo.display.hologram.duration", 3.0);
+        comboHologramFormat = config.getString("combo.display.hologram.format",
+                "<gradient:red:gold><bold>COMBO STREAK!</bold></gradient>");
+        comboHologramHeight = config.getDouble("combo.display.hologram.height", 2.0);
+
+        comboFormat = config.getString("combo.display.format",
+                "<bold><gradient:#FF0000:#FFD700>✦ %dx COMBO ✦</gradient></bold>");
+        multiplierFormat = config.getString("combo.display.multiplier-format",
+                " <gray>(<gradient:#FFD700:#FFA500>%.1fx</gradient>)</gray>");
+        decayWarningFormat = config.getString("combo.display.decay-warning",
+                "<italic><gray>(Decaying in %.1fs)</gray></italic>");
+
+        comboRankEnabled = config.getBoolean("combo.display.rank.enabled", true);
+        rankFormat = config.getString("combo.display.rank.format", "\n<bold>%s</bold>");
+        Map<String, Integer> thresholds = new HashMap<>();
+        ConfigurationSection thresholdSection = config.getConfigurationSection("combo.display.rank.thresholds");
+        if (thresholdSection != null) {
+            for (String rank : thresholdSection.getKeys(false)) {
+                thresholds.put(rank, thresholdSection.getInt(rank));
+            }
+        }
+        rankThresholds = Collections.unmodifiableMap(thresholds);
+        Map<String, String> colors = new HashMap<>();
+        ConfigurationSection colorSection = config.getConfigurationSection("combo.display.rank.colors");
+        if (colorSection != null) {
+            for (String rank : colorSection.getKeys(false)) {
+                colors.put(rank, colorSection.getString(rank));
+            }
+        }
+        rankColors = Collections.unmodifiableMap(colors);
+
+        comboEffectsEnabled = config.getBoolean("combo.effects.enabled", true);
+        comboSoundEnabled = config.getBoolean("combo.effects.sound.enabled", true);
+        comboUpSound = loadSound(config.getString("combo.effects.sound.combo-up", "entity.experience_orb.pickup"),
+                "combo.effects.sound.combo-up", logger);
+        comboMilestoneSound = loadSound(config.getString("combo.effects.sound.combo-milestone",
+                "entity.player.levelup"), "combo.effects.sound.combo-milestone", logger);
+        comboSoundVolume = (float) config.getDouble("combo.effects.sound.volume", 1.0);
+        comboSoundPitch = (float) config.getDouble("combo.effects.sound.pitch", 1.0);
+        comboParticlesEnabled = config.getBoolean("combo.effects.particles.enabled", true);
+        comboParticle = loadParticle(config.getString("combo.effects.particles.type", "CRIT"), logger);
+        comboParticleCount = config.getInt("combo.effects.particles.count", 10);
+
+        displayDuration = config.getDouble("display.duration", 1.5);
+        displayY = config.getDouble("display.position.y", -0.2);
+        displayX = config.getDouble("display.position.x", -0.5);
+        displayRandomOffset = config.getDouble("display.position.random-offset", -1);
+        displayAttach = config.getBoolean("display.position.attach", false);
+
+        int fadeInTicks = (int) (config.getDouble("display.animation.fade-in", 0.25) * 20);
+        int fadeOutTicks = (int) (config.getDouble("display.animation.fade-out", 0.25) * 20);
+        int totalTicks = (int) (displayDuration * 20);
+        Direction direction = Direction.fromString(config.getString("display.position.direction", "down"));
+        double floatSpeed = config.getDouble("display.animation.float-speed", 0.03);
+        double floatCurve = config.getDouble("display.animation.float-curve", 0.02);
+        boolean keyframed = "keyframe".equalsIgnoreCase(config.getString("display.animation.mode", "tick"));
+        Easing easing = Easing.fromString(config.getString("display.animation.easing", "linear"));
+        animation = new AnimationSettings(fadeInTicks, fadeOutTicks, totalTicks, totalTicks - fadeOutTicks,
+                direction, floatSpeed, floatCurve, keyframed, displayAttach, easing);
+        keyframeAnimation = keyframed ? animation
+                : new AnimationSettings(fadeInTicks, fadeOutTicks, totalTicks, totalTicks - fadeOutTicks,
+                        direction, floatSpeed, floatCurve, true, displayAttach, easing);
+
+        lodCutoffDistance = Math.max(0.0, config.getDouble("display.lod.cutoff-distance", 20.0));
+        lodFullDistance = Math.min(config.getDouble("display.lod.full-distance", 12.0), lodCutoffDistance);
+        int staticTicks = Math.max(1, (int) (config.getDouble("display.lod.static-duration", 0.6) * 20));
+        staticAnimation = new AnimationSettings(0, 0, staticTicks, staticTicks, direction, 0, 0, true,
+                displayAttach, Easing.LINEAR);
+
+        poolEnabled = config.getBoolean("display.pool.enabled", true);
+        poolMinSize = config.getInt("display.pool.min-size", 8);
+        poolMaxSize = config.getInt("display.pool.max-size", 64);
+        poolIdleTimeout = (long) (config.getDouble("display.pool.idle-timeout", 30) * 1000);
+        cacheSize = config.getInt("display.cache.size", 512);
+
+        dotEnabled = config.getBoolean("display.damage-over-time.enabled", true);
+        dotInterval = (long) (config.getDouble("display.damage-over-time.interval", 3.0) * 1000);
+        dotEndDelay = (long) (config.getDouble("display.damage-over-time.end-delay", 2.5) * 1000);
+        dotCauses = loadCauses(config, "display.damage-over-time.causes",
+                List.of("FIRE_TICK", "POISON", "WITHER", "FREEZE", "HOT_FLOOR"), logger);
+
+        clusterEnabled = config.getBoolean("display.clustering.enabled", true);
+        clusterCauses = loadCauses(config, "display.clustering.causes",
+                List.of("BLOCK_EXPLOSION", "ENTITY_EXPLOSION", "ENTITY_SWEEP_ATTACK"), logger);
+        clusterVictimCountFormat = config.getBoolean("display.clustering.show-victim-count", true)
+                ? config.getString("display.clustering.victim-count-format", " <gray>(%d hit)")
+                : null;
+
+        viewerRateEnabled = config.getBoolean("display.viewer-rate.enabled", true);
+        viewerRatePerSecond = config.getDouble("display.viewer-rate.per-second", 20.0);
+        viewerRateBurst = config.getInt("display.viewer-rate.burst", 40);
+
+        budgetEnabled = config.getBoolean("display.budget.enabled", true);
+        budgetMaxLive = config.getInt("display.budget.max-live", 1000);
+
+        lanesEnabled = config.getBoolean("display.lanes.enabled", true);
+        laneCount = config.getInt("display.lanes.count", 3);
+        laneSpacing = config.getDouble("display.lanes.spacing", 0.3);
+
+        burstEnabled = config.getBoolean("display.burst.enabled", true);
+        // A merged hit re-texts the live indicator, so the window must end
+        // before the shorter lived indicator starts to fade out or is released.
+        long fadeOutStart = Math.min((long) animation.getStartFadeOutAt(), staticTicks) * 50L;
+        burstWindow = Math.min((long) (config.getDouble("display.burst.window", 0.5) * 1000), fadeOutStart);
+        burstHitCountFormat = config.getBoolean("display.burst.show-hit-count", true)
+                ? config.getString("display.burst.hit-count-format", " <gray>x%d")
+                : null;
+
+        governorEnabled = config.getBoolean("display.governor.enabled", true);
+        governorStepDownMspt = config.getDouble("display.governor.step-down-mspt", 45.0);
+        governorStepUpMspt = config.getDouble("display.governor.step-up-mspt", 35.0);
+        governorSamples = config.getInt("display.governor.samples", 3);
+        governorLowestTier = loadTier(config.getString("display.governor.lowest-tier", "off"),
+                "display.governor.lowest-tier", FidelityTier.OFF, logger);
+
+        densityEnabled = config.getBoolean("display.density.enabled", true);
+        densityMaxLive = config.getInt("display.density.max-live-per-chunk", 12);
+        densityMaxRate = config.getDouble("display.density.max-events-per-second", 40);
+        densitySummary = !"silent".equalsIgnoreCase(config.getString("display.density.mode", "summary"));
+        densitySummaryFormat = config.getString("display.density.summary-format",
+                "<gray>x%d hits, <red>%.0f</red> dmg");
+        densitySummaryDuration = (long) (config.getDouble("display.density.summary-duration", 2.0) * 1000);
+
+        Map<String, String> formats = new HashMap<>();
+        ConfigurationSection formatSection = config.getConfigurationSection("damage-formats");
+        if (formatSection != null) {
+            for (String damageType : formatSection.getKeys(false)) {
+                String format = formatSection.getString(damageType);
+                if (format != null) {
+                    formats.put(damageType, format);
+                }
+            }
+        }
+        EntityDamageEvent.DamageCause[] causes = EntityDamageEvent.DamageCause.values();
+        DamageTemplate[] causeTemplates = new DamageTemplate[causes.length];
+        for (EntityDamageEvent.DamageCause cause : causes) {
+            causeTemplates[cause.ordinal()] = damageTemplates.get(loadCauseFormat(cause, formats));
+        }
+        DamageTemplate[] criticalTemplates = new DamageTemplate[causes.length];
+        criticalTemplates[EntityDamageEvent.DamageCause.ENTITY_ATTACK.ordinal()] = damageTemplates.get(
+                formats.getOrDefault("critical", "<dark_red><bold>-%.1f ⚡</bold>"));
+        damageFormats = new DamageFormats(causeTemplates, criticalTemplates, CRITICAL_CHANCE);
+
+        Map<String, Sound> sounds = new HashMap<>();
+        ConfigurationSection soundSection = config.getConfigurationSection("damage-type-sounds");
+        if (soundSection != null) {
+            for (String damageType : soundSection.getKeys(false)) {
+                Sound sound = loadSound(soundSection.getString(damageType), "damage-type-sounds." + damageType,
+                        logger);
+                if (sound != null) {
+                    sounds.put(damageType, sound);
+                }
+            }
+        }
+        causeSounds = new Sound[causes.length];
+        for (EntityDamageEvent.DamageCause cause : causes) {
+            causeSounds[cause.ordinal()] = sounds.get(cause.name().toLowerCase());
+        }
+        damageSoundVolume = (float) config.getDouble("damage-type-sounds-settings.volume", 1.0);
+        damageSoundPitch = (float) config.getDouble("damage-type-sounds-settings.pitch", 1.0);
+    }
+
+    /**
+     * Resolves the damage format of a damage cause from the damage-formats
+     * section, falling back to the built in format of the cause.
+     *
+     * @return the damage format
+     */
+    private static String loadCauseFormat(EntityDamageEvent.DamageCause cause, Map<String, String> formats) {
+        switch (cause) {
+            case POISON:
+                return formats.getOrDefault("poison", "<dark_green>-%.1f ☠");
+            case FIRE, FIRE_TICK:
+                return formats.getOrDefault("fire", "<gold>-%.1f 🔥");
+            case KILL:
+                return formats.getOrDefault("kill", "<dark_red>-%.1f ☠");
+            case MAGIC:
+                return formats.getOrDefault("magic", "<dark_purple>-%.1f ✨");
+            case FALL:
+                return formats.getOrDefault("fall", "<gray>-%.1f 💨");
+            case DROWNING:
+                return formats.getOrDefault("drown", "<blue>-%.1f 💧");
+            case BLOCK_EXPLOSION, ENTITY_EXPLOSION:
+                return formats.getOrDefault("explosion", "<red>-%.1f 💥");
+            case CONTACT:
+                return formats.getOrDefault("contact", "<green>-%.1f 🌵");
+            case CRAMMING:
+                return formats.getOrDefault("cramming", "<gray>-%.1f 📦");
+            case DRAGON_BREATH:
+                return formats.getOrDefault("dragon", "<light_purple>-%.1f 🐉");
+            case DRYOUT:
+                return formats.getOrDefault("dryout", "<yellow>-%.1f 🌊");
+            case ENTITY_SWEEP_ATTACK:
+                return formats.getOrDefault("sweep", "<red>-%.1f ⚔");
+            case FALLING_BLOCK:
+                return formats.getOrDefault("falling_block", "<gray>-%.1f 🧱");
+            case FLY_INTO_WALL:
+                return formats.getOrDefault("wall", "<gray>-%.1f 💫");
+            case FREEZE:
+                return formats.getOrDefault("freeze", "<aqua>-%.1f ❄");
+            case HOT_FLOOR:
+                return formats.getOrDefault("hot_floor", "<gold>-%.1f 🔥");
+            case LAVA:
+                return formats.getOrDefault("lava", "<dark_red>-%.1f 🌋");
+            case LIGHTNING:
+                return formats.getOrDefault("lightning", "<yellow>-%.1f ⚡");
+            case PROJECTILE:
+                return formats.getOrDefault("projectile", "<gray>-%.1f 🏹");
+            case SONIC_BOOM:
+                return formats.getOrDefault("sonic_boom", "<dark_aqua>-%.1f 📢");
+            case STARVATION:
+                return formats.getOrDefault("starvation", "<gold>-%.1f 🍖");
+            case SUFFOCATION:
+                return formats.getOrDefault("suffocation", "<gray>-%.1f ⬛");
+            case THORNS:
+                return formats.getOrDefault("thorns", "<green>-%.1f 🌹");
+            case VOID:
+                return formats.getOrDefault("void", "<dark_gray>-%.1f ⬇");
+            case WITHER:
+                return formats.getOrDefault("wither", "<dark_gray>-%.1f 💀");
+            case WORLD_BORDER:
+                return formats.getOrDefault("border", "<red>-%.1f 🌐");
+            default:
+                return formats.getOrDefault("default", "<red>-%.1f ❤");
+        }
+    }
+
+    /**
+     * Resolves a sound by its registry key, reporting it when it does not exist.
+     *
+     * @return the sound, or null if the name is missing or invalid
+     */
+    private static Sound loadSound(String soundName, String path, VitalLogger logger) {
+        if (soundName == null) {
+            return null;
+        }
+        try {
+            Sound sound = Registry.SOUNDS.get(NamespacedKey.minecraft(soundName.toLowerCase()));
+            if (sound == null) {
+                logger.warning("Invalid sound name for " + path + ": " + soundName);
+            }
+            return sound;
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid sound name for " + path + ": " + soundName);
+            return null;
+        }
+    }
+
+    /**
+     * Reads a list of damage cause names, reporting the ones that do not exist.
+     *
+     * @return the damage causes, or the defaults if the list is missing
+     */
+    private static Set<EntityDamageEvent.DamageCause> loadCauses(FileConfiguration config, String path,
+            List<String> defaults, VitalLogger logger) {
+        Set<EntityDamageEvent.DamageCause> causes = EnumSet.noneOf(EntityDamageEvent.DamageCause.class);
+        List<String> causeNames = config.isList(path) ? config.getStringList(path) : defaults;
+        for (String causeName : causeNames) {
+            try {
+                causes.add(EntityDamageEvent.DamageCause.valueOf(causeName.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid damage cause in " + path + ": " + causeName);
+            }
+        }
+        return Collections.unmodifiableSet(causes);
+    }
+
+    /**
+     * Resolves a fidelity tier by its name, reporting it when it does not
+     * exist.
+     *
+     * @return the tier, or the fallback if the name is invalid
+     */
+    private static FidelityTier loadTier(String tierName, String path, FidelityTier fallback, VitalLogger logger) {
+        FidelityTier tier = FidelityTier.fromString(tierName);
+        if (tier == null) {
+            logger.warning("Invalid fidelity tier for " + path + ": " + tierName + ", using "
+                    + fallback.name().toLowerCase());
+            return fallback;
+        }
+        return tier;
+    }
+
+    /**
+     * Resolves a particle by its name, reporting it when it does not exist.
+     *
+     * @return the particle, or null if the name is invalid
+     */
+    private static Particle loadParticle(String particleType, VitalLogger logger) {
+        try {
+            return Particle.valueOf(particleType.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid particle type in config: " + particleType);
+            return null;
+        }
+    }
+}
@@ -2,6 +2,28 @@ package stawa.vitalstrike;
 
 import stawa.vitalstrike.logger.*;
 import stawa.vitalstrike.commands.CommandManager;
+import stawa.vitalstrike.indicators.AnimationSettings;
+import stawa.vitalstrike.indicators.BurstTracker;
+import stawa.vitalstrike.indicators.ChunkDensityLimiter;
+import stawa.vitalstrike.indicators.ComponentCache;
+import stawa.vitalstrike.indicators.DamageFormats;
+import stawa.vitalstrike.indicators.DamageOverTimeAccumulator;
+import stawa.vitalstrike.indicators.DamageTemplate;
+import stawa.vitalstrike.indicators.DamageTemplates;
+import stawa.vitalstrike.indicators.DisplayPool;
+import stawa.vitalstrike.indicators.FidelityGovernor;
+import stawa.vitalstrike.indicators.FidelityTier;
+import stawa.vitalstrike.indicators.IndicatorAnimator;
+import stawa.vitalstrike.indicators.IndicatorBudget;
+import stawa.vitalstrike.indicators.IndicatorPriority;
+import stawa.vitalstrike.indicators.IndicatorPipeline;
+import stawa.vitalstrike.indicators.LaneAllocator;
+import stawa.vitalstrike.indicators.OrphanedDisplaySweeper;
+import stawa.vitalstrike.indicators.PendingIndicator;
+import stawa.vitalstrike.indicators.SourceClusterer;
+import stawa.vitalstrike.indicators.TargetRules;
+import stawa.vitalstrike.indicators.ViewerIndex;
+import stawa.vitalstrike.indicators.ViewerRateLimiter;
 import stawa.vitalstrike.systems.KnockdownManager;
 
 import java.io.BufferedReader;
@@ -9,6 +31,8 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,10 +42,8 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 
 import org.bukkit.Location;
-import org.bukkit.NamespacedKey;
-import org.bukkit.Particle;
-import org.bukkit.Registry;
 import org.bukkit.Sound;
+import org.bukkit.block.Block;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.ConfigurationSection;
@@ -36,6 +58,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.EntityDamageByBlockEvent;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
@@ -77,112 +100,40 @@ import org.joml.Vector3f;
  * @version 1.5.0
  */
 public class VitalStrike extends JavaPlugin implements Listener {
-    private static final long DAMAGE_COOLDOWN = 500;
 
     private Map<UUID, TextDisplay> activeHolograms = new HashMap<>();
     private Map<UUID, org.bukkit.scheduler.BukkitTask> decayTasks = new HashMap<>();
     private Map<UUID, Long> lastActionTime = new HashMap<>();
     private HashMap<UUID, Long> lastComboTime = new HashMap<>();
-    private HashMap<UUID, Long> lastDamageTime = new HashMap<>();
     private HashMap<UUID, Integer> playerCombos = new HashMap<>();
 
-    private boolean comboDecayEnabled = true;
-    private boolean comboEnabled = true;
-    private boolean comboHologramEnabled = true;
-    private boolean comboMultiplierEnabled = true;
-    private boolean comboRankEnabled = true;
-    private boolean enabled = true;
-    private boolean updateCheckerEnabled;
-
-    private double comboHologramDuration = 3.0;
-    private double comboHologramHeight = 2.0;
-    private int comboHologramMinCombo = 10;
-    private double comboMultiplierBase = 1.0;
-    private double comboMultiplierMax = 3.0;
-    private double comboMultiplierPerCombo = 0.1;
-    private long comboResetTime = 3000;
-
-    private int comboDecayInterval = 1;
-    private int comboDecayMinimum = 0;
-    private int comboDecayRate = 1;
-    private int comboDecayTime = 10;
-
-    private double displayDuration = 1.5;
-    private double displayRandomOffset = -1;
-    private double displayX = -0.5;
-    private double displayY = -0.2;
-    private double fadeInDuration = 0.25;
-    private double fadeOutDuration = 0.25;
-    private double floatCurve = 0.02;
-    private double floatSpeed = 0.03;
-    private String moveDirection = "down";
-
-    private String comboFormat = "<bold><gradient:#FF0000:#FFD700>✦ %dx COMBO ✦</gradient></bold>";
-    private String comboHologramFormat = "<gradient:red:gold><bold>COMBO STREAK!</bold></gradient>";
-    private String decayWarningFormat = "<italic><gray>(Decaying in %.1fs)</gray></italic>";
-    private String multiplierFormat = " <gray>(<gradient:#FFD700:#FFA500>%.1fx</gradient>)</gray>";
-    private String rankFormat = "\n<bold>%s</bold>";
-
     private String damageIndicatorType;
     private PermissionManager permissionManager;
     private CommandManager commandManager;
 
-    private Map<String, Sound> damageTypeSounds;
-    private Map<String, String> rankColors = new HashMap<>();
-    private Map<String, Double> rankMultipliers = new HashMap<>();
-    private Map<String, Integer> rankThresholds = new HashMap<>();
     private Map<UUID, Map<String, String>> damageFormatCache;
 
     private VitalLogger logger;
     private PlayerManager playerManager;
     private PlayerStats playerStats;
     private KnockdownManager knockdownManager;
-
-    /**
-     * Enum representing the direction of movement for the damage indicators.
-     */
-    private enum Direction {
-        UP(0, 1, 0),
-        DOWN(0, -1, 0),
-        LEFT(-1, 0, 0),
-        RIGHT(1, 0, 0);
-
-        private final double x;
-        private final double y;
-        private final double z;
-
-        Direction(double x, double y, double z) {
-            this.x = x;
-            this.y = y;
-            this.z = z;
-        }
-
-        public double getX() {
-            return x;
-        }
-
-        public double getY() {
-            return y;
-        }
-
-        public double getZ() {
-            return z;
-        }
-
-        /**
-         * Returns the direction from a string representation.
-         * 
-         * @param dir the string representation of the direction
-         * @return the direction enum
-         */
-        public static Direction fromString(String dir) {
-            try {
-                return valueOf(dir.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                return DOWN;
-            }
-        }
-    }
+    private IndicatorAnimator indicatorAnimator;
+    private IndicatorBudget indicatorBudget;
+    private DisplayPool displayPool;
+    private DamageTemplates damageTemplates;
+    private ComponentCache componentCache;
+    private BurstTracker burstTracker;
+    private ChunkDensityLimiter densityLimiter;
+    private IndicatorPipeline indicatorPipeline;
+    private DamageOverTimeAccumulator damageOverTime;
+    private SourceClusterer sourceClusterer;
+    private LaneAllocator laneAllocator;
+    private OrphanedDisplaySweeper orphanedDisplaySweeper;
+    private TargetRules targetRules;
+    private ViewerRateLimiter viewerRateLimiter;
+    private FidelityGovernor fidelityGovernor;
+    private ViewerIndex viewerIndex;
+    private volatile Settings settings;
 
     /**
      * Called when the plugin is enabled.
@@ -201,15 +152,49 @@ public class VitalStrike extends JavaPlugin implements Listener {
         }
 
         saveDefaultConfig();
+        orphanedDisplaySweeper = new OrphanedDisplaySweeper(this, logger);
+        displayPool = new DisplayPool(this, orphanedDisplaySweeper);
+        damageTemplates = new DamageTemplates(MiniMessage.miniMessage());
+        componentCache = new ComponentCache(0);
+        burstTracker = new BurstTracker(this, componentCache, damageTemplates);
+        fidelityGovernor = new FidelityGovernor(this, logger);
+        damageOverTime = new DamageOverTimeAccumulator(this, hit -> indicatorPipeline.capture(hit));
+        targetRules = new TargetRules(this);
+        viewerRateLimiter = new ViewerRateLimiter(this);
+        sourceClusterer = new SourceClusterer(damageTemplates, this::displayDamageIndicator,
+                hit -> indicatorPipeline.capture(hit));
+        indicatorAnimator = new IndicatorAnimator(this, displayPool);
+        laneAllocator = new LaneAllocator(this, indicatorAnimator);
+        indicatorBudget = new IndicatorBudget(indicatorAnimator,
+                () -> activeHolograms.size() + densityLimiter.getSummaryCount());
+        densityLimiter = new ChunkDensityLimiter(this, displayPool, indicatorBudget, damageTemplates,
+                loc -> viewerIndex.getViewers(loc, settings.lodCutoffDistance));
         loadConfig();
+        orphanedDisplaySweeper.start();
+        displayPool.start();
+        indicatorAnimator.start();
+        burstTracker.start();
+        densityLimiter.start();
+        fidelityGovernor.start();
+        indicatorPipeline = new IndicatorPipeline(this, logger, componentCache, this::displayDamageIndicator,
+                sourceClusterer::flush);
+        indicatorPipeline.start();
+        damageOverTime.start();
+        laneAllocator.start();
+        targetRules.start();
+        viewerRateLimiter.start();
         getServer().getPluginManager().registerEvents(this, this);
 
         try {
             playerManager = new PlayerManager(this);
+            playerManager.loadPlayers(getServer().getOnlinePlayers());
         } catch (Errors.DatabaseException e) {
             logger.severe("Failed to initialize player manager: " + e.getMessage());
         }
 
+        viewerIndex = new ViewerIndex(this, player -> playerManager.isEnabled(player));
+        viewerIndex.start();
+
         try {
             playerStats = new PlayerStats(this);
         } catch (Errors.DatabaseException e) {
@@ -218,15 +203,14 @@ public class VitalStrike extends JavaPlugin implements Listener {
 
         helpManager = new HelpManager(this);
         commandManager = new CommandManager(this, logger, playerManager, playerStats, helpManager);
-        permissionManager = new PermissionManager(this);
+        permissionManager = new PermissionManager(this, damageTemplates);
         damageFormatCache = new HashMap<>();
         damageIndicatorType = getConfig().getString("damage-indicator", "simple-damage-formats");
 
-        if (updateCheckerEnabled) {
+        if (settings.updateCheckerEnabled) {
             checkForUpdates();
         }
 
-        loadDamageTypeSounds();
         logger.info("VitalStrike has been enabled!");
     }
 
@@ -238,6 +222,36 @@ public class VitalStrike extends JavaPlugin implements Listener {
         if (knockdownManager != null) {
             knockdownManager.cleanup();
         }
+        if (indicatorPipeline != null) {
+            indicatorPipeline.shutdown();
+        }
+        if (damageOverTime != null) {
+            damageOverTime.shutdown();
+        }
+        if (laneAllocator != null) {
+            laneAllocator.shutdown();
+        }
+        if (viewerIndex != null) {
+            viewerIndex.shutdown();
+        }
+        if (viewerRateLimiter != null) {
+            viewerRateLimiter.shutdown();
+        }
+        if (burstTracker != null) {
+            burstTracker.shutdown();
+        }
+        if (densityLimiter != null) {
+            densityLimiter.shutdown();
+        }
+        if (fidelityGovernor != null) {
+            fidelityGovernor.shutdown();
+        }
+        if (indicatorAnimator != null) {
+            indicatorAnimator.shutdown();
+        }
+        if (displayPool != null) {
+            displayPool.shutdown();
+        }
         for (TextDisplay hologram : activeHolograms.values()) {
             if (hologram != null && hologram.isValid()) {
                 hologram.remove();
@@ -267,200 +281,38 @@ public class VitalStrike extends JavaPlugin implements Listener {
     public void reload() {
         reloadConfig();
         loadConfig();
-        loadDamageTypeSounds();
-    }
-
-    /**
-     * Loads the damage type sounds from the configuration.
-     */
-    private void loadDamageTypeSounds() {
-        damageTypeSounds = new HashMap<>();
-        FileConfiguration config = getConfig();
-        ConfigurationSection soundSection = config.getConfigurationSection("damage-type-sounds");
-        if (soundSection != null) {
-            for (String damageType : soundSection.getKeys(false)) {
-                try {
-                    String soundName = soundSection.getString(damageType);
-                    if (soundName != null) {
-                        Sound sound = Registry.SOUNDS.get(NamespacedKey.minecraft(soundName.toLowerCase()));
-                        damageTypeSounds.put(damageType, sound);
-                    }
-                } catch (IllegalArgumentException e) {
-                    logger.warning("Invalid sound name for damage type " + damageType);
-                }
-            }
+        if (permissionManager != null) {
+            permissionManager.loadPermissions();
         }
     }
 
     /**
      * Loads the configuration from the config.yml file.
+     * Builds a new settings snapshot and publishes it in a single write, then
+     * applies it to the indicator components.
      */
     private void loadConfig() {
         FileConfiguration config = getConfig();
-        loadBasicSettings(config);
-        loadComboSettings(config);
-        loadDisplaySettings(config);
-    }
-
-    /**
-     * Loads basic plugin settings from configuration.
-     * Includes core settings like plugin enabled state and update checker.
-     * 
-     * @param config the plugin configuration
-     */
-    private void loadBasicSettings(FileConfiguration config) {
-        enabled = config.getBoolean("enabled", true);
-        updateCheckerEnabled = config.getBoolean("update-checker.enabled", true);
-    }
-
-    /**
-     * Loads all combo-related settings from configuration.
-     * This is a master method that calls specialized methods for different combo
-     * aspects.
-     * 
-     * @param config the plugin configuration
-     */
-    private void loadComboSettings(FileConfiguration config) {
-        loadComboBasicSettings(config);
-        loadComboDecaySettings(config);
-        loadComboMultiplierSettings(config);
-        loadComboDisplaySettings(config);
-        loadComboRankSettings(config);
-    }
-
-    /**
-     * Loads basic combo system settings from configuration.
-     * Includes combo enabled state and reset time.
-     * 
-     * @param config the plugin configuration
-     */
-    private void loadComboBasicSettings(FileConfiguration config) {
-        comboEnabled = config.getBoolean("combo.enabled", true);
-        comboResetTime = config.getLong("combo.reset-time", 3) * 1000;
-    }
-
-    /**
-     * Loads combo decay settings from configuration.
-     * Controls how combos decay over time when player is inactive.
-     * 
-     * @param config the plugin configuration
-     */
-    private void loadComboDecaySettings(FileConfiguration config) {
-        comboDecayEnabled = config.getBoolean("combo.decay.enabled", true);
-        comboDecayTime = config.getInt("combo.decay.time", 10);
-        comboDecayRate = config.getInt("combo.decay.rate", 1);
-        comboDecayInterval = config.getInt("combo.decay.interval", 1);
-        comboDecayMinimum = config.getInt("combo.decay.minimum", 0);
-    }
-
-    /**
-     * Loads combo multiplier settings from configuration.
-     * Controls how combos affect damage multipliers and loads rank-specific
-     * multipliers.
-     * 
-     * @param config the plugin configuration
-     */
-    private void loadComboMultiplierSettings(FileConfiguration config) {
-        comboMultiplierEnabled = config.getBoolean("combo.multiplier.enabled", true);
-        comboMultiplierBase = config.getDouble("combo.multiplier.base", 1.0);
-        comboMultiplierPerCombo = config.getDouble("combo.multiplier.per-combo", 0.1);
-        comboMultiplierMax = config.getDouble("combo.multiplier.max", 3.0);
-
-        ConfigurationSection rankMultSection = config.getConfigurationSection("combo.multiplier.ranks");
-        if (rankMultSection != null) {
-            rankMultipliers.clear();
-            for (String rank : rankMultSection.getKeys(false)) {
-                rankMultipliers.put(rank, rankMultSection.getDouble(rank));
-            }
-        }
-    }
-
-    /**
-     * Loads combo display settings from configuration.
-     * Controls how combos are visually displayed to players including holograms and
-     * formats.
-     * 
-     * @param config the plugin configuration
-     */
-    private void loadComboDisplaySettings(FileConfiguration config) {
-        comboHologramEnabled = config.getBoolean("combo.display.hologram.enabled", true);
-        comboHologramMinCombo = config.getInt("combo.display.hologram.min-combo", 10);
-        comboHologramDuration = config.getDouble("combo.display.hologram.duration", 3.0);
-        comboHologramFormat = config.getString("combo.display.hologram.format",
-                "<gradient:red:gold><bold>COMBO STREAK!</bold></gradient>");
-        comboHologramHeight = config.getDouble("combo.display.hologram.height", 2.0);
-
-        comboFormat = config.getString("combo.display.format",
-                "<bold><gradient:#FF0000:#FFD700>✦ %dx COMBO ✦</gradient></bold>");
-        multiplierFormat = config.getString("combo.display.multiplier-format",
-                " <gray>(<gradient:#FFD700:#FFA500>%.1fx</gradient>)</gray>");
-        decayWarningFormat = config.getString("combo.display.decay-warning",
-                "<italic><gray>(Decaying in %.1fs)</gray></italic>");
-    }
-
-    /**
-     * Loads combo rank settings from configuration.
-     * Controls the rank system for combos including thresholds and visual
-     * appearance.
-     * 
-     * @param config the plugin configuration
-     */
-    private void loadComboRankSettings(FileConfiguration config) {
-        comboRankEnabled = config.getBoolean("combo.display.rank.enabled", true);
-        rankFormat = config.getString("combo.display.rank.format", "\n<bold>%s</bold>");
-        loadRankThresholds(config);
-        loadRankColors(config);
-    }
-
-    /**
-     * Loads rank thresholds from configuration.
-     * Defines the combo count required to achieve each rank.
-     * 
-     * @param config the plugin configuration
-     */
-    private void loadRankThresholds(FileConfiguration config) {
-        ConfigurationSection thresholds = config.getConfigurationSection("combo.display.rank.thresholds");
-        if (thresholds != null) {
-            rankThresholds.clear();
-            for (String rank : thresholds.getKeys(false)) {
-                rankThresholds.put(rank, thresholds.getInt(rank));
-            }
-        }
-    }
-
-    /**
-     * Loads rank colors from configuration.
-     * Defines the color formatting for each rank.
-     * 
-     * @param config the plugin configuration
-     */
-    private void loadRankColors(FileConfiguration config) {
-        ConfigurationSection colors = config.getConfigurationSection("combo.display.rank.colors");
-        if (colors != null) {
-            rankColors.clear();
-            for (String rank : colors.getKeys(false)) {
-                rankColors.put(rank, colors.getString(rank));
-            }
-        }
-    }
-
-    /**
-     * Loads display settings from configuration.
-     * Controls how damage indicators are positioned and animated.
-     * 
-     * @param config the plugin configuration
-     */
-    private void loadDisplaySettings(FileConfiguration config) {
-        displayDuration = config.getDouble("display.duration", 1.5);
-        displayY = config.getDouble("display.position.y", -0.2);
-        displayX = config.getDouble("display.position.x", -0.5);
-        displayRandomOffset = config.getDouble("display.position.random-offset", -1);
-        moveDirection = config.getString("display.position.direction", "down");
-
-        fadeInDuration = config.getDouble("display.animation.fade-in", 0.25);
-        fadeOutDuration = config.getDouble("display.animation.fade-out", 0.25);
-        floatSpeed = config.getDouble("display.animation.float-speed", 0.03);
-        floatCurve = config.getDouble("display.animation.float-curve", 0.02);
+        damageTemplates.compile(config);
+        Settings loaded = new Settings(config, logger, damageTemplates);
+        settings = loaded;
+
+        displayPool.configure(loaded.poolEnabled, loaded.poolMinSize, loaded.poolMaxSize, loaded.poolIdleTimeout);
+        displayPool.setViewDistance(loaded.lodCutoffDistance);
+        fidelityGovernor.configure(loaded.governorEnabled, loaded.governorStepDownMspt, loaded.governorStepUpMspt,
+                loaded.governorSamples, loaded.governorLowestTier);
+        densityLimiter.configure(loaded.densityEnabled, loaded.densityMaxLive, loaded.densityMaxRate,
+                loaded.densitySummary, loaded.densitySummaryFormat, loaded.densitySummaryDuration,
+                loaded.animation.getTotalTicks() * 50L);
+        componentCache.resize(loaded.cacheSize);
+        indicatorBudget.configure(loaded.budgetEnabled, loaded.budgetMaxLive);
+        targetRules.compile(loaded.targetExcludedTypes, loaded.targetDisabledWorlds, loaded.targetExcludeTag,
+                loaded.targetPlayerInvolvedOnly, loaded.targetNamedOnly);
+        viewerRateLimiter.configure(loaded.viewerRateEnabled, loaded.viewerRatePerSecond, loaded.viewerRateBurst);
+        laneAllocator.configure(loaded.lanesEnabled, loaded.laneCount, loaded.laneSpacing);
+        sourceClusterer.configure(loaded.clusterEnabled, loaded.clusterCauses, loaded.clusterVictimCountFormat);
+        damageOverTime.configure(loaded.dotEnabled, loaded.dotInterval, loaded.dotEndDelay, loaded.dotCauses);
+        burstTracker.configure(loaded.burstEnabled, loaded.burstWindow, loaded.burstHitCountFormat);
     }
 
     /**
@@ -610,20 +462,21 @@ public class VitalStrike extends JavaPlugin implements Listener {
             hologram.remove();
         }
         playerManager.unloadPlayer(event.getPlayer());
+        permissionManager.invalidate(player);
     }
 
     /**
-     * Handles the entity damage event.
+     * Handles the entity damage event. Knockdowns and combo multipliers change
+     * the damage here, before other plugins see it. Damage indicators are
+     * captured later at {@link #onEntityDamageMonitor(EntityDamageEvent)}.
      * 
      * @param event the entity damage event
      */
     @EventHandler(priority = EventPriority.LOWEST)
     public void onEntityDamage(EntityDamageEvent event) {
-        if (!enabled)
+        if (!settings.enabled)
             return;
 
-        reloadDisplaySettings();
-
         Entity entity = event.getEntity();
         if (!(entity instanceof org.bukkit.entity.LivingEntity))
             return;
@@ -644,16 +497,8 @@ public class VitalStrike extends JavaPlugin implements Listener {
             }
         }
 
-        UUID entityId = entity.getUniqueId();
-        long currentTime = System.currentTimeMillis();
-
         if (event instanceof EntityDamageByEntityEvent entityDamageByEntityEvent) {
-            handlePlayerCombos(entityDamageByEntityEvent, currentTime);
-        }
-
-        if (!isOnCooldown(entityId, currentTime)) {
-            lastDamageTime.put(entityId, currentTime);
-            displayDamageIndicator(entity, event);
+            handlePlayerCombos(entityDamageByEntityEvent, System.currentTimeMillis());
         }
     }
 
@@ -666,7 +511,7 @@ public class VitalStrike extends JavaPlugin implements Listener {
      */
     @EventHandler
     public void onPlayerInteract(PlayerInteractEvent event) {
-        if (!enabled)
+        if (!settings.enabled)
             return;
 
         Player player = event.getPlayer();
@@ -679,34 +524,6 @@ public class VitalStrike extends JavaPlugin implements Listener {
         }
     }
 
-    /**
-     * Reloads display and animation settings from config.
-     */
-    private void reloadDisplaySettings() {
-        displayDuration = getConfig().getDouble("display.duration", 1.5);
-        displayY = getConfig().getDouble("display.position.y", -0.2);
-        displayX = getConfig().getDouble("display.position.x", -0.5);
-        displayRandomOffset = getConfig().getDouble("display.position.random-offset", -1);
-        moveDirection = getConfig().getString("display.position.direction", "down");
-
-        fadeInDuration = getConfig().getDouble("display.animation.fade-in", 0.25);
-        fadeOutDuration = getConfig().getDouble("display.animation.fade-out", 0.25);
-        floatSpeed = getConfig().getDouble("display.animation.float-speed", 0.03);
-        floatCurve = getConfig().getDouble("display.animation.float-curve", 0.02);
-    }
-
-    /**
-     * Checks if an entity is on damage cooldown.
-     * 
-     * @param entityId    the entity UUID
-     * @param currentTime the current time
-     * @return true if on cooldown
-     */
-    private boolean isOnCooldown(UUID entityId, long currentTime) {
-        return lastDamageTime.containsKey(entityId) &&
-                currentTime - lastDamageTime.get(entityId) < DAMAGE_COOLDOWN;
-    }
-
     /**
      * Handles player combo system for entity damage events.
      * Processes combo counting, decay, multipliers, and effects when a player
@@ -721,19 +538,9 @@ public class VitalStrike extends JavaPlugin implements Listener {
         Entity damager = event.getDamager();
         Entity target = event.getEntity();
 
-        if (!(damager instanceof Player))
+        if (!(damager instanceof Player) || !targetRules.allows(target, damager))
             return;
 
-        if (target instanceof TextDisplay ||
-                target.getType() == EntityType.ARMOR_STAND ||
-                target.getType() == EntityType.ITEM_FRAME ||
-                target.getType() == EntityType.GLOW_ITEM_FRAME ||
-                target.getType() == EntityType.PAINTING ||
-                target.getType() == EntityType.ITEM_DISPLAY ||
-                target.getType() == EntityType.BLOCK_DISPLAY) {
-            return;
-        }
-
         Player player = (Player) damager;
         UUID playerId = player.getUniqueId();
 
@@ -755,7 +562,7 @@ public class VitalStrike extends JavaPlugin implements Listener {
      */
     private void updatePlayerCombo(UUID playerId, long currentTime) {
         Long lastCombo = lastComboTime.getOrDefault(playerId, 0L);
-        if (currentTime - lastCombo > comboResetTime) {
+        if (currentTime - lastCombo > settings.comboResetTime) {
             playerCombos.put(playerId, 1);
         } else {
             int currentCombo = playerCombos.getOrDefault(playerId, 0);
@@ -774,7 +581,8 @@ public class VitalStrike extends JavaPlugin implements Listener {
      * @param playerId the player UUID
      */
     private void handleComboDecay(Player player, UUID playerId) {
-        if (!comboDecayEnabled)
+        Settings config = settings;
+        if (!config.comboDecayEnabled)
             return;
 
         org.bukkit.scheduler.BukkitTask existingTask = decayTasks.remove(playerId);
@@ -785,14 +593,15 @@ public class VitalStrike extends JavaPlugin implements Listener {
         org.bukkit.scheduler.BukkitTask decayTask = getServer().getScheduler().runTaskTimer(this, () -> {
             long timeSinceLastAction = (System.currentTimeMillis() - lastActionTime.get(playerId)) / 1000;
 
-            if (timeSinceLastAction >= comboDecayTime) {
+            if (timeSinceLastAction >= config.comboDecayTime) {
                 int currentCombo = playerCombos.getOrDefault(playerId, 0);
-                if (currentCombo > comboDecayMinimum) {
-                    playerCombos.put(playerId, Math.max(currentCombo - comboDecayRate, comboDecayMinimum));
+                if (currentCombo > config.comboDecayMinimum) {
+                    playerCombos.put(playerId,
+                            Math.max(currentCombo - config.comboDecayRate, config.comboDecayMinimum));
                     displayComboHUD(player, null);
                 }
             }
-        }, comboDecayTime * 20L, comboDecayInterval * 20L);
+        }, config.comboDecayTime * 20L, config.comboDecayInterval * 20L);
 
         decayTasks.put(playerId, decayTask);
     }
@@ -804,19 +613,20 @@ public class VitalStrike extends JavaPlugin implements Listener {
      * @param event    the damage event
      */
     private void applyDamageMultiplier(Player player, UUID playerId, EntityDamageEvent event) {
-        if (!comboMultiplierEnabled)
+        Settings config = settings;
+        if (!config.comboMultiplierEnabled)
             return;
 
         int combo = playerCombos.get(playerId);
         String rank = getComboRank(combo).replace("[", "").replace("]", "");
 
-        double multiplier = comboMultiplierBase + (combo * comboMultiplierPerCombo);
+        double multiplier = config.comboMultiplierBase + (combo * config.comboMultiplierPerCombo);
 
-        double rankMultiplier = rankMultipliers.getOrDefault(rank, comboMultiplierBase);
+        double rankMultiplier = config.rankMultipliers.getOrDefault(rank, config.comboMultiplierBase);
         multiplier = Math.max(multiplier, rankMultiplier);
         applyElementalEffects(player, event.getEntity(), combo);
 
-        multiplier = Math.min(multiplier, comboMultiplierMax);
+        multiplier = Math.min(multiplier, config.comboMultiplierMax);
 
         event.setDamage(event.getDamage() * multiplier);
     }
@@ -866,11 +676,16 @@ public class VitalStrike extends JavaPlugin implements Listener {
      * @param playerId the player UUID
      */
     private void playComboEffects(Player player, UUID playerId) {
-        if (!getConfig().getBoolean("combo.effects.enabled", true) || !playerManager.isEnabled(player))
+        if (!settings.comboEffectsEnabled || !playerManager.isEnabled(player))
             return;
 
-        playComboSound(player, playerId);
-        spawnComboParticles(player);
+        FidelityTier tier = fidelityGovernor.getTier();
+        if (tier.allowsSounds()) {
+            playComboSound(player, playerId);
+        }
+        if (tier.allowsParticles()) {
+            spawnComboParticles(player);
+        }
     }
 
     /**
@@ -880,44 +695,22 @@ public class VitalStrike extends JavaPlugin implements Listener {
      * @param playerId the player UUID
      */
     private void playComboSound(Player player, UUID playerId) {
-        if (!getConfig().getBoolean("combo.effects.sound.enabled", true))
+        Settings config = settings;
+        if (!config.comboSoundEnabled)
             return;
 
-        try {
-            String soundName = getConfig().getString("combo.effects.sound.combo-up", "ENTITY_EXPERIENCE_ORB_PICKUP");
-            Sound sound = Registry.SOUNDS.get(NamespacedKey.minecraft(soundName.toLowerCase()));
-            if (sound == null) {
-                logger.warning("Invalid sound name in config: " + soundName);
-                return;
-            }
-
-            float volume = (float) getConfig().getDouble("combo.effects.sound.volume", 1.0);
-            float pitch = (float) getConfig().getDouble("combo.effects.sound.pitch", 1.0);
-            Location location = player.getLocation();
-            if (location != null) {
-                player.playSound(location, sound, volume, pitch);
-            }
+        Location location = player.getLocation();
+        if (config.comboUpSound != null) {
+            player.playSound(location, config.comboUpSound, config.comboSoundVolume, config.comboSoundPitch);
+        }
 
-            int prevCombo = playerCombos.getOrDefault(playerId, 0) - 1;
-            String prevRank = getComboRank(prevCombo).replace("[", "").replace("]", "");
-            String newRank = getComboRank(playerCombos.get(playerId)).replace("[", "").replace("]", "");
-
-            if (!prevRank.equals(newRank)) {
-                String milestoneSoundName = getConfig().getString("combo.effects.sound.combo-milestone",
-                        "ENTITY_PLAYER_LEVELUP");
-                Sound milestoneSound = Registry.SOUNDS.get(NamespacedKey.minecraft(milestoneSoundName.toLowerCase()));
-                if (milestoneSound == null) {
-                    logger.warning("Invalid milestone sound name in config: " + milestoneSoundName);
-                    return;
-                }
+        int prevCombo = playerCombos.getOrDefault(playerId, 0) - 1;
+        String prevRank = getComboRank(prevCombo).replace("[", "").replace("]", "");
+        String newRank = getComboRank(playerCombos.get(playerId)).replace("[", "").replace("]", "");
 
-                Location playerLoc = player.getLocation();
-                if (playerLoc != null) {
-                    player.playSound(playerLoc, milestoneSound, volume * 1.2f, pitch * 1.2f);
-                }
-            }
-        } catch (IllegalArgumentException e) {
-            logger.warning("Invalid sound name in config: " + e.getMessage());
+        if (!prevRank.equals(newRank) && config.comboMilestoneSound != null) {
+            player.playSound(location, config.comboMilestoneSound,
+                    config.comboSoundVolume * 1.2f, config.comboSoundPitch * 1.2f);
         }
     }
 
@@ -927,364 +720,372 @@ public class VitalStrike extends JavaPlugin implements Listener {
      * @param player the player
      */
     private void spawnComboParticles(Player player) {
-        if (!getConfig().getBoolean("combo.effects.particles.enabled", true))
+        Settings config = settings;
+        if (!config.comboParticlesEnabled || config.comboParticle == null)
             return;
 
-        try {
-            String particleType = getConfig().getString("combo.effects.particles.type", "CRIT");
-            int count = getConfig().getInt("combo.effects.particles.count", 10);
-            Location playerLocation = player.getLocation();
-
-            if (playerLocation != null) {
-                Location particleLocation = playerLocation.clone().add(0, 1, 0);
-                player.getWorld().spawnParticle(Particle.valueOf(particleType.toUpperCase()),
-                        particleLocation, count, 0.5, 0.5, 0.5, 0);
-            }
-
-        } catch (IllegalArgumentException e) {
-            logger.warning("Invalid particle type in config: " + e.getMessage());
-        }
+        Location particleLocation = player.getLocation().add(0, 1, 0);
+        player.getWorld().spawnParticle(config.comboParticle,
+                particleLocation, config.comboParticleCount, 0.5, 0.5, 0.5, 0);
     }
 
     /**
-     * Displays damage indicator for an entity.
+     * Captures the final damage of a hit for its damage indicator. Runs after
+     * every other listener, so cancelled hits never show an indicator and
+     * changed damage shows its final value. Only what has to be read from the
+     * entities and permissions of the hit is captured here. Target rules are
+     * checked when the hit is committed, and the template is picked and
+     * rendered by the indicator pipeline.
      * 
-     * @param entity the damaged entity
-     * @param event  the damage event
+     * @param event the entity damage event
      */
-    private void displayDamageIndicator(Entity entity, EntityDamageEvent event) {
-        if (!shouldShowDamageIndicator(entity)) {
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityDamageMonitor(EntityDamageEvent event) {
+        Settings config = settings;
+        if (!config.enabled || fidelityGovernor.getTier() == FidelityTier.OFF) {
             return;
         }
 
-        double damage = event.getFinalDamage();
-        Location loc = entity.getLocation().add(0, entity.getHeight() + 0.5, 0);
-
+        Entity entity = event.getEntity();
+        Entity damagerEntity = event instanceof EntityDamageByEntityEvent damageByEntityEvent
+                ? damageByEntityEvent.getDamager()
+                : null;
+        double x = entity.getX();
+        double y = entity.getY() + entity.getHeight() + 0.5;
+        double z = entity.getZ();
         Player damager = null;
-        if (event instanceof EntityDamageByEntityEvent damageByEntityEvent) {
-            Entity damagerEntity = damageByEntityEvent.getDamager();
+        long source;
+        if (damagerEntity != null) {
             if (damagerEntity instanceof Player player) {
                 damager = player;
             }
+            source = damagerEntity.getEntityId();
+        } else if (event instanceof EntityDamageByBlockEvent damageByBlockEvent
+                && damageByBlockEvent.getDamager() != null) {
+            Block block = damageByBlockEvent.getDamager();
+            source = blockKey(block.getX() >> 4, block.getY() >> 4, block.getZ() >> 4);
+        } else {
+            // Unknown sources are told apart by the chunk section of the victim.
+            source = blockKey(Location.locToBlock(x) >> 4, Location.locToBlock(y) >> 4,
+                    Location.locToBlock(z) >> 4);
         }
 
-        String damageType = event.getCause().name().toLowerCase();
-
-        String damageFormat;
+        DamageFormats formats = config.damageFormats;
         if (damager != null && playerManager.isEnabled(damager)) {
-            damageFormat = permissionManager.getDamageFormat(damager, damageType,
-                    getSimpleDamageFormat(event.getCause()));
-        } else {
-            damageFormat = getSimpleDamageFormat(event.getCause());
+            formats = permissionManager.getDamageFormats(damager, formats);
         }
 
-        entity.getWorld().getNearbyEntities(loc, 20, 20, 20).stream()
-                .filter(Player.class::isInstance)
-                .map(e -> (Player) e)
-                .filter(player -> playerManager.isEnabled(player))
-                .forEach(player -> createDamageDisplay(loc, damageFormat, damage));
+        indicatorPipeline.capture(new PendingIndicator(entity, event.getFinalDamage(), event.getCause(), damager,
+                source, entity.getWorld(), x, y, z, System.currentTimeMillis(), formats,
+                playerManager.getCustomTemplates()));
+    }
 
-        playDamageTypeSound(entity, event.getCause(), loc);
+    /**
+     * Packs chunk section coordinates into a source key that never collides
+     * with an entity id.
+     * 
+     * @param sectionX the section X coordinate
+     * @param sectionY the section Y coordinate
+     * @param sectionZ the section Z coordinate
+     * @return the source key
+     */
+    private static long blockKey(int sectionX, int sectionY, int sectionZ) {
+        return (1L << 62) | ((long) (sectionX & 0x3FFFFF) << 36) | ((long) (sectionZ & 0x3FFFFF) << 14)
+                | (sectionY & 0x3FFF);
     }
 
     /**
-     * Checks if an entity should receive damage indicators.
+     * Displays the damage indicator of a prepared hit.
+     * Hits on entities the target rules exclude are dropped, damage over time
+     * ticks are collected into periodic summaries, and hits landing while the
+     * entity's burst window is open are added to its live indicator instead of
+     * spawning a new one.
      * 
-     * @param entity the entity to check
-     * @return true if the entity should receive damage indicators, false otherwise
+     * @param hit the captured and prepared hit
      */
-    public boolean shouldShowDamageIndicator(Entity entity) {
-        if (!(entity instanceof LivingEntity)) {
-            return false;
+    private void displayDamageIndicator(PendingIndicator hit) {
+        FidelityTier tier = fidelityGovernor.getTier();
+        if (tier == FidelityTier.OFF) {
+            return;
+        }
+        if (!hit.isSummary() && !targetRules.allows(hit.getEntity(), hit.getAttacker())) {
+            return;
         }
 
-        if (entity.getType() == EntityType.ARMOR_STAND) {
-            return false;
+        if (damageOverTime.accumulate(hit) || sourceClusterer.add(hit)) {
+            return;
         }
 
-        if (entity instanceof TextDisplay ||
-                entity.getType() == EntityType.ARMOR_STAND ||
-                entity.getType() == EntityType.ITEM_FRAME ||
-                entity.getType() == EntityType.GLOW_ITEM_FRAME ||
-                entity.getType() == EntityType.PAINTING ||
-                entity.getType() == EntityType.ITEM_DISPLAY ||
-                entity.getType() == EntityType.BLOCK_DISPLAY) {
-            return false;
+        double damage = hit.getDamage();
+        Entity entity = hit.getEntity();
+        if (entity != null && burstTracker.merge(hit.getEntityId(), damage, hit.getTime())) {
+            return;
+        }
+
+        Settings config = settings;
+        Location loc = hit.getLocation();
+        Player[] viewers = viewerIndex.getViewers(loc, config.lodCutoffDistance);
+        if (tier == FidelityTier.ATTACKER_ONLY) {
+            viewers = onlyAttacker(viewers, hit.getAttacker());
+        }
+        if (viewers.length == 0) {
+            return;
+        }
+
+        // Viewers are rate limited first, so a hit nobody is left to see never
+        // takes a place in its chunk.
+        viewers = viewerRateLimiter.filter(viewers, hit.getAttacker(), entity, hit.getTime());
+        if (viewers.length == 0) {
+            return;
+        }
+        if (!densityLimiter.admit(loc, damage, hit.getTime(), viewers)) {
+            return;
         }
 
-        return !entity.getScoreboardTags().contains("nodamage");
+        TextDisplay display = null;
+        DamageTemplate template = hit.getTemplate();
+        Map<DamageTemplate, List<Player>> styleGroups = groupByStyle(viewers);
+
+        List<TextDisplay> hitDisplays = new ArrayList<>(2);
+        IndicatorPriority priority = hit.getAttacker() != null ? IndicatorPriority.PLAYER
+                : IndicatorPriority.ENVIRONMENT;
+        if (styleGroups == null) {
+            display = createDamageDisplay(entity, loc, hit.getText(), viewers, tier, priority, hitDisplays);
+        } else {
+            for (Map.Entry<DamageTemplate, List<Player>> group : styleGroups.entrySet()) {
+                DamageTemplate groupTemplate = hit.getTemplate();
+                Component groupText = hit.getText();
+                if (group.getKey() != null) {
+                    groupTemplate = group.getKey();
+                    groupText = hit.getStyleText(groupTemplate);
+                    if (groupText == null) {
+                        // The style was chosen after the hit was captured.
+                        groupText = componentCache.render(groupTemplate, damage);
+                    }
+                }
+                Player[] groupViewers = group.getValue().toArray(new Player[0]);
+                TextDisplay groupDisplay = createDamageDisplay(entity, loc, groupText, groupViewers, tier,
+                        priority, hitDisplays);
+                // A burst can only keep one display up to date, so hits shown
+                // in several styles are not merged.
+                if (styleGroups.size() == 1) {
+                    display = groupDisplay;
+                    template = groupTemplate;
+                }
+            }
+        }
+        if (entity != null && display != null) {
+            burstTracker.start(hit.getEntityId(), display, template, damage, hit.getTime());
+        }
+        if (tier.allowsSounds()) {
+            playDamageTypeSound(hit.getCause(), loc, viewers);
+        }
     }
 
     /**
-     * Gets the simple damage format based on damage cause.
+     * Groups viewers by the damage style they chose, so each style is spawned
+     * once and shown only to its group.
      * 
-     * @param cause the damage cause
-     * @return the format string
-     */
-    private String getSimpleDamageFormat(EntityDamageEvent.DamageCause cause) {
-        switch (cause) {
-            case ENTITY_ATTACK:
-                if (Math.random() < 0.2) {
-                    return getConfig().getString("damage-formats.critical", "<dark_red><bold>-%.1f ⚡</bold>");
-                } else {
-                    return getConfig().getString("damage-formats.default", "<red>-%.1f ❤");
+     * @param viewers the players that see the indicator
+     * @return the viewers per custom style template, with the viewers without
+     *         one under the null key, or null if no viewer has a custom style
+     */
+    private Map<DamageTemplate, List<Player>> groupByStyle(Player[] viewers) {
+        Map<DamageTemplate, List<Player>> groups = null;
+        for (int i = 0; i < viewers.length; i++) {
+            DamageTemplate style = playerManager.getCustomTemplate(viewers[i]);
+            if (style == null && groups == null) {
+                continue;
+            }
+            if (groups == null) {
+                groups = new HashMap<>();
+                if (i > 0) {
+                    groups.put(null, new ArrayList<>(Arrays.asList(viewers).subList(0, i)));
                 }
-            case POISON:
-                return getConfig().getString("damage-formats.poison", "<dark_green>-%.1f ☠");
-            case FIRE, FIRE_TICK:
-                return getConfig().getString("damage-formats.fire", "<gold>-%.1f 🔥");
-            case KILL:
-                return getConfig().getString("damage-formats.kill", "<dark_red>-%.1f ☠");
-            case MAGIC:
-                return getConfig().getString("damage-formats.magic", "<dark_purple>-%.1f ✨");
-            case FALL:
-                return getConfig().getString("damage-formats.fall", "<gray>-%.1f 💨");
-            case DROWNING:
-                return getConfig().getString("damage-formats.drown", "<blue>-%.1f 💧");
-            case BLOCK_EXPLOSION, ENTITY_EXPLOSION:
-                return getConfig().getString("damage-formats.explosion", "<red>-%.1f 💥");
-            case CONTACT:
-                return getConfig().getString("damage-formats.contact", "<green>-%.1f 🌵");
-            case CRAMMING:
-                return getConfig().getString("damage-formats.cramming", "<gray>-%.1f 📦");
-            case DRAGON_BREATH:
-                return getConfig().getString("damage-formats.dragon", "<light_purple>-%.1f 🐉");
-            case DRYOUT:
-                return getConfig().getString("damage-formats.dryout", "<yellow>-%.1f 🌊");
-            case ENTITY_SWEEP_ATTACK:
-                return getConfig().getString("damage-formats.sweep", "<red>-%.1f ⚔");
-            case FALLING_BLOCK:
-                return getConfig().getString("damage-formats.falling_block", "<gray>-%.1f 🧱");
-            case FLY_INTO_WALL:
-                return getConfig().getString("damage-formats.wall", "<gray>-%.1f 💫");
-            case FREEZE:
-                return getConfig().getString("damage-formats.freeze", "<aqua>-%.1f ❄");
-            case HOT_FLOOR:
-                return getConfig().getString("damage-formats.hot_floor", "<gold>-%.1f 🔥");
-            case LAVA:
-                return getConfig().getString("damage-formats.lava", "<dark_red>-%.1f 🌋");
-            case LIGHTNING:
-                return getConfig().getString("damage-formats.lightning", "<yellow>-%.1f ⚡");
-            case PROJECTILE:
-                return getConfig().getString("damage-formats.projectile", "<gray>-%.1f 🏹");
-            case SONIC_BOOM:
-                return getConfig().getString("damage-formats.sonic_boom", "<dark_aqua>-%.1f 📢");
-            case STARVATION:
-                return getConfig().getString("damage-formats.starvation", "<gold>-%.1f 🍖");
-            case SUFFOCATION:
-                return getConfig().getString("damage-formats.suffocation", "<gray>-%.1f ⬛");
-            case THORNS:
-                return getConfig().getString("damage-formats.thorns", "<green>-%.1f 🌹");
-            case VOID:
-                return getConfig().getString("damage-formats.void", "<dark_gray>-%.1f ⬇");
-            case WITHER:
-                return getConfig().getString("damage-formats.wither", "<dark_gray>-%.1f 💀");
-            case WORLD_BORDER:
-                return getConfig().getString("damage-formats.border", "<red>-%.1f 🌐");
-            default:
-                return getConfig().getString("damage-formats.default", "<red>-%.1f ❤");
+            }
+            groups.computeIfAbsent(style, key -> new ArrayList<>()).add(viewers[i]);
         }
+        return groups;
     }
 
     /**
-     * Creates and displays a damage indicator.
+     * Narrows the viewers of an indicator down to the attacking player.
      * 
-     * @param loc          the location to display at
-     * @param damageFormat the format string for the damage
-     * @param damage       the damage amount
-     */
-    private void createDamageDisplay(Location loc, String damageFormat, double damage) {
-        String rawText = String.format(damageFormat, damage);
-        String displayFormat = formatColorCodes(rawText);
-        Component damageText = MiniMessage.miniMessage().deserialize(displayFormat);
-
-        TextDisplay textDisplay = createTextDisplay(loc, damageText);
-
-        setupDisplayAnimation(textDisplay, loc);
+     * @param viewers  the players in range of the indicator
+     * @param attacker the attacking player, or null
+     * @return the attacker if they are among the viewers, otherwise no viewers
+     */
+    private Player[] onlyAttacker(Player[] viewers, Player attacker) {
+        for (Player viewer : viewers) {
+            if (viewer == attacker) {
+                return new Player[] { attacker };
+            }
+        }
+        return new Player[0];
     }
 
     /**
-     * Formats legacy color codes to MiniMessage format.
-     * Converts both ampersand (&) and section symbol (§) color codes to MiniMessage
-     * tags.
+     * Checks if an entity should receive damage indicators.
      * 
-     * @param text the text containing legacy color codes
-     * @return the text with color codes converted to MiniMessage format
+     * @param entity the entity to check
+     * @return true if the entity should receive damage indicators, false otherwise
      */
-    private String formatColorCodes(String text) {
-        return text.replace("&c", "<red>")
-                .replace("&4", "<dark_red>")
-                .replace("&2", "<dark_green>")
-                .replace("&6", "<gold>")
-                .replace("&5", "<dark_purple>")
-                .replace("&7", "<gray>")
-                .replace("&9", "<blue>")
-                .replace("&l", "<bold>")
-                .replace("§c", "<red>")
-                .replace("§4", "<dark_red>")
-                .replace("§2", "<dark_green>")
-                .replace("§6", "<gold>")
-                .replace("§5", "<dark_purple>")
-                .replace("§7", "<gray>")
-                .replace("§9", "<blue>")
-                .replace("§l", "<bold>");
+    public boolean shouldShowDamageIndicator(Entity entity) {
+        return targetRules.allowsTarget(entity);
     }
 
     /**
-     * Creates a text display entity at the specified location.
-     */
-    private TextDisplay createTextDisplay(Location loc, Component text) {
-        TextDisplay display = (TextDisplay) loc.getWorld().spawnEntity(loc, EntityType.TEXT_DISPLAY);
-        display.text(text);
-        display.setBillboard(org.bukkit.entity.Display.Billboard.CENTER);
-        display.setDefaultBackground(false);
-        display.setShadowed(true);
-        display.setVisibleByDefault(true);
+     * Creates and displays a damage indicator for the given viewers. Viewers
+     * within the full detail distance see the animated indicator, the others
+     * see a static, short lived one.
+     * 
+     * @param entity      the damaged entity
+     * @param loc         the location to display at
+     * @param damageText  the rendered damage text
+     * @param viewers     the players allowed to see the indicator
+     * @param tier        the current fidelity tier
+     * @param priority    the priority of the indicator under the budget
+     * @param hitDisplays the displays already placed for the hit
+     * @return the animated indicator, or the static one if nobody is close,
+     *         or null if the budget left no room
+     */
+    private TextDisplay createDamageDisplay(Entity entity, Location loc, Component damageText, Player[] viewers,
+            FidelityTier tier, IndicatorPriority priority, List<TextDisplay> hitDisplays) {
+        Settings config = settings;
+        int near = tier.compareTo(FidelityTier.KEYFRAME) <= 0
+                ? viewerIndex.partition(viewers, loc, config.lodFullDistance)
+                : 0;
+
+        TextDisplay display = null;
+        if (near > 0) {
+            Player[] nearViewers = near == viewers.length ? viewers : Arrays.copyOf(viewers, near);
+            AnimationSettings animation = tier == FidelityTier.FULL ? config.animation : config.keyframeAnimation;
+            display = placeDisplay(entity, damageText, loc, nearViewers, animation, priority, hitDisplays);
+        }
+        if (near < viewers.length) {
+            Player[] farViewers = near == 0 ? viewers : Arrays.copyOfRange(viewers, near, viewers.length);
+            TextDisplay staticDisplay = placeDisplay(entity, damageText, loc, farViewers, config.staticAnimation,
+                    priority, hitDisplays);
+            if (display == null) {
+                display = staticDisplay;
+            }
+        }
         return display;
     }
 
     /**
-     * Sets up the animation for a damage display.
-     */
-    private void setupDisplayAnimation(TextDisplay textDisplay, Location baseLoc) {
-        Location displayLoc = baseLoc.clone();
-        double randomX = 0;
-        double randomZ = 0;
-
-        if (displayRandomOffset >= 0) {
-            randomX = (Math.random() - 0.5) * displayRandomOffset;
-            randomZ = (Math.random() - 0.5) * displayRandomOffset;
-            displayLoc.add(randomX, 0, randomZ);
+     * Places one display of a hit. With lanes enabled the display takes the
+     * target's oldest lane and recycles the live display of that lane, so the
+     * target never has more live indicators than lanes. A hit that needs more
+     * displays than the target has lanes leaves out the ones that would take
+     * over its own displays.
+     * 
+     * Only the first display of a hit may cut other indicators short to fit
+     * in the budget. The later ones, such as the static display of far
+     * viewers, are left out while the budget is full, so they can never evict
+     * a display just placed for the same hit.
+     */
+    private TextDisplay placeDisplay(Entity entity, Component damageText, Location loc, Player[] viewers,
+            AnimationSettings animation, IndicatorPriority priority, List<TextDisplay> hitDisplays) {
+        boolean evict = hitDisplays.isEmpty();
+        if (entity == null || !laneAllocator.isEnabled()) {
+            TextDisplay display = setupDisplayAnimation(entity, damageText, loc, viewers, animation, priority,
+                    null, true, evict);
+            if (display != null) {
+                hitDisplays.add(display);
+            }
+            return display;
         }
 
-        displayLoc.add(displayX, displayY, 0);
-        textDisplay.teleport(displayLoc);
-
-        int fadeInTicks = (int) (fadeInDuration * 20);
-        int fadeOutTicks = (int) (fadeOutDuration * 20);
-        int totalTicks = (int) (displayDuration * 20);
-        int startFadeOutAt = totalTicks - fadeOutTicks;
-
-        Direction direction = Direction.fromString(moveDirection);
-
-        AnimationSettings settings = new AnimationSettings(
-                fadeInTicks, fadeOutTicks, totalTicks, startFadeOutAt, direction);
-
-        animateDisplay(textDisplay, randomX, randomZ, settings);
-    }
-
-    /**
-     * Animation settings container class.
-     */
-    private static class AnimationSettings {
-        final int fadeInTicks;
-        final int fadeOutTicks;
-        final int totalTicks;
-        final int startFadeOutAt;
-        final Direction direction;
-
-        AnimationSettings(int fadeInTicks, int fadeOutTicks, int totalTicks,
-                int startFadeOutAt, Direction direction) {
-            this.fadeInTicks = fadeInTicks;
-            this.fadeOutTicks = fadeOutTicks;
-            this.totalTicks = totalTicks;
-            this.startFadeOutAt = startFadeOutAt;
-            this.direction = direction;
+        int target = entity.getEntityId();
+        int lane = laneAllocator.claim(target);
+        TextDisplay reuse = laneAllocator.getLiveDisplay(target, lane);
+        if (reuse != null && hitDisplays.contains(reuse)) {
+            return null;
+        }
+        Location laneLoc = loc.clone().add(0, laneAllocator.getOffset(lane), 0);
+        TextDisplay display = setupDisplayAnimation(entity, damageText, laneLoc, viewers, animation, priority,
+                reuse, false, evict);
+        if (display != null) {
+            laneAllocator.assign(target, lane, display);
+            hitDisplays.add(display);
         }
+        return display;
     }
 
     /**
-     * Handles the animation of a damage display.
+     * Places a pooled or recycled damage display and sets up its animation.
+     * With attached indicators the display rides the damaged entity and its
+     * offset is moved into the display translation. A new display first has
+     * to find room in the indicator budget, cutting other indicators short
+     * only when allowed to evict. The random offset is only applied with
+     * jitter, as it would push lane displays out of their lane.
      */
-    private void animateDisplay(TextDisplay textDisplay, double baseX, double baseZ, AnimationSettings settings) {
-        double baseWaveX = baseX * floatCurve;
-        double baseWaveZ = baseZ * floatCurve;
+    private TextDisplay setupDisplayAnimation(Entity entity, Component damageText, Location baseLoc,
+            Player[] viewers, AnimationSettings animation, IndicatorPriority priority, TextDisplay reuse,
+            boolean jitter, boolean evict) {
+        Player[] previousViewers = reuse != null ? indicatorAnimator.getViewers(reuse) : null;
+        if (previousViewers == null
+                && !(evict ? indicatorBudget.reserve(priority) : indicatorBudget.reserveFree())) {
+            return null;
+        }
 
-        for (int tick = 0; tick < settings.totalTicks; tick++) {
-            final int currentTick = tick;
-            getServer().getScheduler().runTaskLater(this, () -> {
-                if (!textDisplay.isValid())
-                    return;
+        Settings config = settings;
+        Location displayLoc = baseLoc.clone();
+        double randomX = 0;
+        double randomZ = 0;
 
-                float scale = calculateScale(currentTick, settings.fadeInTicks, settings.startFadeOutAt,
-                        settings.fadeOutTicks);
-                updateDisplayPosition(textDisplay, currentTick, baseWaveX, baseWaveZ, settings.direction);
-                updateDisplayTransformation(textDisplay, scale);
-            }, tick);
+        if (jitter && config.displayRandomOffset >= 0) {
+            randomX = (Math.random() - 0.5) * config.displayRandomOffset;
+            randomZ = (Math.random() - 0.5) * config.displayRandomOffset;
+            displayLoc.add(randomX, 0, randomZ);
         }
 
-        getServer().getScheduler().runTaskLater(this, () -> {
-            if (textDisplay.isValid()) {
-                textDisplay.remove();
+        displayLoc.add(config.displayX, config.displayY, 0);
+        TextDisplay textDisplay;
+        if (previousViewers != null) {
+            displayPool.reuse(reuse, displayLoc, damageText, previousViewers, viewers);
+            textDisplay = reuse;
+        } else {
+            textDisplay = displayPool.acquire(displayLoc, damageText, viewers);
+        }
+        boolean mounted = config.displayAttach && entity != null && entity.isValid()
+                && (textDisplay.getVehicle() == entity || entity.addPassenger(textDisplay));
+        if (!mounted) {
+            // Targets that died or summaries without a target leave the display
+            // where it was placed, animated like a detached one.
+            if (textDisplay.isInsideVehicle()) {
+                textDisplay.leaveVehicle();
+                textDisplay.teleport(displayLoc);
             }
-        }, settings.totalTicks);
-    }
-
-    /**
-     * Calculates the scale for a display based on animation progress.
-     */
-    private float calculateScale(int currentTick, int fadeInTicks, int startFadeOutAt, int fadeOutTicks) {
-        if (currentTick < fadeInTicks) {
-            return (float) currentTick / fadeInTicks;
-        } else if (currentTick > startFadeOutAt) {
-            return 1.0f - ((float) (currentTick - startFadeOutAt) / fadeOutTicks);
+            indicatorAnimator.animate(textDisplay, viewers, 0, 0, 0, randomX, randomZ, animation.detached(),
+                    priority);
+            return textDisplay;
         }
-        return 1.0f;
-    }
 
-    /**
-     * Updates the position of a display during animation.
-     */
-    private void updateDisplayPosition(TextDisplay textDisplay, int currentTick,
-            double baseWaveX, double baseWaveZ, Direction direction) {
-        double progress = currentTick / 20.0;
-        double waveX = baseWaveX * Math.sin(progress * Math.PI);
-        double waveZ = baseWaveZ * Math.cos(progress * Math.PI);
-
-        double moveX = direction.getX() * floatSpeed + waveX;
-        double moveY = direction.getY() * floatSpeed;
-        double moveZ = direction.getZ() * floatSpeed + waveZ;
-
-        Location newLoc = textDisplay.getLocation();
-        newLoc.add(moveX, moveY, moveZ);
-        textDisplay.teleport(newLoc);
-    }
-
-    /**
-     * Updates the transformation of a display.
-     */
-    private void updateDisplayTransformation(TextDisplay textDisplay, float scale) {
-        textDisplay.setTransformation(new Transformation(
-                new Vector3f(),
-                new AxisAngle4f(),
-                new Vector3f(scale, scale, scale),
-                new AxisAngle4f()));
+        // Passengers ride at the top of the entity, the rest of the offset
+        // above it becomes the display translation.
+        double offsetY = baseLoc.getY() - entity.getLocation().getY() - entity.getHeight() + config.displayY;
+        indicatorAnimator.animate(textDisplay, viewers, config.displayX + randomX, offsetY, randomZ,
+                randomX, randomZ, animation, priority);
+        return textDisplay;
     }
 
     /**
      * Plays a sound based on the damage type.
      * 
-     * @param entity   the damaged entity
      * @param cause    the damage cause
      * @param location the location to play the sound
+     * @param viewers  the players that hear the sound
      */
-    private void playDamageTypeSound(Entity entity, EntityDamageEvent.DamageCause cause, Location location) {
-        if (damageTypeSounds == null || damageTypeSounds.isEmpty()) {
-            return;
-        }
-
-        String damageType = cause.name().toLowerCase();
-        Sound sound = damageTypeSounds.get(damageType);
+    private void playDamageTypeSound(EntityDamageEvent.DamageCause cause, Location location, Player[] viewers) {
+        Settings config = settings;
+        Sound sound = config.causeSounds[cause.ordinal()];
 
         if (sound != null) {
-            float volume = (float) getConfig().getDouble("damage-type-sounds-settings.volume", 1.0f);
-            float pitch = (float) getConfig().getDouble("damage-type-sounds-settings.pitch", 1.0f);
-
-            entity.getWorld().getNearbyEntities(location, 20, 20, 20).stream()
-                    .filter(Player.class::isInstance)
-                    .map(e -> (Player) e)
-                    .filter(player -> playerManager.isEnabled(player))
-                    .forEach(player -> player.playSound(location, sound, volume, pitch));
+            for (Player player : viewers) {
+                player.playSound(location, sound, config.damageSoundVolume, config.damageSoundPitch);
+            }
         }
     }
 
@@ -1295,18 +1096,19 @@ public class VitalStrike extends JavaPlugin implements Listener {
      * @return the rank
      */
     private String getComboRank(int combo) {
+        Settings config = settings;
         String currentRank = "D";
         int highestThreshold = -1;
 
-        for (Map.Entry<String, Integer> entry : rankThresholds.entrySet()) {
+        for (Map.Entry<String, Integer> entry : config.rankThresholds.entrySet()) {
             if (combo >= entry.getValue() && entry.getValue() > highestThreshold) {
                 currentRank = entry.getKey();
                 highestThreshold = entry.getValue();
             }
         }
 
-        String rankColor = rankColors.getOrDefault(currentRank, "<white>");
-        return String.format(rankFormat, rankColor + currentRank);
+        String rankColor = config.rankColors.getOrDefault(currentRank, "<white>");
+        return String.format(config.rankFormat, rankColor + currentRank);
     }
 
     /**
@@ -1315,7 +1117,8 @@ public class VitalStrike extends JavaPlugin implements Listener {
      * @param player the player
      */
     private void displayComboHUD(Player player, Entity target) {
-        if (!comboEnabled || !playerManager.isEnabled(player))
+        Settings config = settings;
+        if (!config.comboEnabled || !playerManager.isEnabled(player))
             return;
 
         int combo = playerCombos.getOrDefault(player.getUniqueId(), 0);
@@ -1327,7 +1130,7 @@ public class VitalStrike extends JavaPlugin implements Listener {
         Component message = MiniMessage.miniMessage().deserialize(displayText);
         player.sendActionBar(message);
 
-        if (comboHologramEnabled && combo >= comboHologramMinCombo && target != null) {
+        if (config.comboHologramEnabled && combo >= config.comboHologramMinCombo && target != null) {
             createComboHologram(player, combo, target);
         }
 
@@ -1343,30 +1146,41 @@ public class VitalStrike extends JavaPlugin implements Listener {
      * @param target the target entity to display above
      */
     private void createComboHologram(Player player, int combo, Entity target) {
+        Settings config = settings;
         UUID playerId = player.getUniqueId();
 
         TextDisplay existing = activeHolograms.remove(playerId);
         if (existing != null && existing.isValid()) {
             existing.remove();
         }
+        if (!indicatorBudget.reserve(IndicatorPriority.PLAYER)) {
+            return;
+        }
 
-        Location loc = target.getLocation().add(0, target.getHeight() + comboHologramHeight, 0);
+        Location loc = target.getLocation().add(0, target.getHeight() + config.comboHologramHeight, 0);
         TextDisplay hologram = (TextDisplay) loc.getWorld().spawnEntity(loc, EntityType.TEXT_DISPLAY);
+        if (config.displayAttach && target.addPassenger(hologram)) {
+            hologram.setTransformation(new Transformation(
+                    new Vector3f(0.0f, (float) config.comboHologramHeight, 0.0f),
+                    new AxisAngle4f(),
+                    new Vector3f(1.0f, 1.0f, 1.0f),
+                    new AxisAngle4f()));
+        }
 
-        String formattedText = comboHologramFormat.replace("%combo%", String.valueOf(combo));
+        String formattedText = config.comboHologramFormat.replace("%combo%", String.valueOf(combo));
         hologram.text(MiniMessage.miniMessage().deserialize(formattedText));
 
         hologram.setBillboard(org.bukkit.entity.Display.Billboard.CENTER);
         hologram.setAlignment(TextDisplay.TextAlignment.CENTER);
         hologram.setSeeThrough(true);
         hologram.setShadowed(true);
-        hologram.setPersistent(false);
+        orphanedDisplaySweeper.tag(hologram);
         hologram.setViewRange(32);
         hologram.setDefaultBackground(false);
 
         activeHolograms.put(playerId, hologram);
 
-        int removalTicks = (int) (comboHologramDuration * 20);
+        int removalTicks = (int) (config.comboHologramDuration * 20);
         getServer().getScheduler().runTaskLater(this, () -> {
             TextDisplay storedHologram = activeHolograms.get(playerId);
             if (storedHologram != null && storedHologram.equals(hologram) && hologram.isValid()) {
@@ -1384,19 +1198,20 @@ public class VitalStrike extends JavaPlugin implements Listener {
      * @return the formatted HUD text
      */
     private String buildComboHudText(Player player, int combo) {
+        Settings config = settings;
         StringBuilder display = new StringBuilder();
 
-        display.append(String.format(comboFormat, combo));
+        display.append(String.format(config.comboFormat, combo));
 
-        if (comboRankEnabled) {
+        if (config.comboRankEnabled) {
             display.append(getComboRank(combo));
         }
 
-        if (comboMultiplierEnabled) {
+        if (config.comboMultiplierEnabled) {
             display.append(getComboMultiplierText(combo));
         }
 
-        if (comboDecayEnabled) {
+        if (config.comboDecayEnabled) {
             display.append(getDecayWarningText(player));
         }
 
@@ -1411,10 +1226,11 @@ public class VitalStrike extends JavaPlugin implements Listener {
      */
     private String getComboMultiplierText(int combo) {
         String rank = getComboRank(combo).replace("[", "").replace("]", "");
-        double multiplier = comboMultiplierBase + (combo * comboMultiplierPerCombo);
-        double rankMultiplier = rankMultipliers.getOrDefault(rank, comboMultiplierBase);
-        multiplier = Math.clamp(multiplier, rankMultiplier, comboMultiplierMax);
-        return String.format(multiplierFormat, multiplier);
+        Settings config = settings;
+        double multiplier = config.comboMultiplierBase + (combo * config.comboMultiplierPerCombo);
+        double rankMultiplier = config.rankMultipliers.getOrDefault(rank, config.comboMultiplierBase);
+        multiplier = Math.clamp(multiplier, rankMultiplier, config.comboMultiplierMax);
+        return String.format(config.multiplierFormat, multiplier);
     }
 
     /**
@@ -1430,10 +1246,11 @@ public class VitalStrike extends JavaPlugin implements Listener {
         }
 
         long timeSinceLastAction = (System.currentTimeMillis() - lastActionTime.get(playerId)) / 1000;
-        if (timeSinceLastAction >= comboDecayTime - 3) {
-            float timeUntilDecay = (float) comboDecayTime - timeSinceLastAction;
+        Settings config = settings;
+        if (timeSinceLastAction >= config.comboDecayTime - 3) {
+            float timeUntilDecay = (float) config.comboDecayTime - timeSinceLastAction;
             if (timeUntilDecay > 0) {
-                return " " + String.format(decayWarningFormat, timeUntilDecay);
+                return " " + String.format(config.decayWarningFormat, timeUntilDecay);
             }
         }
         return "";
@@ -1446,7 +1263,7 @@ public class VitalStrike extends JavaPlugin implements Listener {
      * @param currentCombo the current combo count
      */
     private void scheduleActionBarClear(Player player, int currentCombo) {
-        int durationTicks = (int) (displayDuration * 20);
+        int durationTicks = (int) (settings.displayDuration * 20);
         getServer().getScheduler().runTaskLater(this, () -> {
             if (playerCombos.getOrDefault(player.getUniqueId(), 0) == currentCombo) {
                 player.sendActionBar(Component.empty());
@@ -1482,6 +1299,87 @@ public class VitalStrike extends JavaPlugin implements Listener {
         return playerManager;
     }
 
+    /**
+     * Gets the damage indicator display pool.
+     * 
+     * @return the display pool
+     */
+    public DisplayPool getDisplayPool() {
+        return displayPool;
+    }
+
+    /**
+     * Gets the cache of rendered damage indicator text.
+     * 
+     * @return the component cache
+     */
+    public ComponentCache getComponentCache() {
+        return componentCache;
+    }
+
+    /**
+     * Gets the spatial index of players with damage indicators enabled.
+     * 
+     * @return the viewer index
+     */
+    public ViewerIndex getViewerIndex() {
+        return viewerIndex;
+    }
+
+    /**
+     * Gets the registry of compiled damage formats.
+     * 
+     * @return the damage templates
+     */
+    public DamageTemplates getDamageTemplates() {
+        return damageTemplates;
+    }
+
+    /**
+     * Gets the per-chunk indicator density limiter.
+     * 
+     * @return the density limiter
+     */
+    public ChunkDensityLimiter getDensityLimiter() {
+        return densityLimiter;
+    }
+
+    /**
+     * Gets the per-viewer indicator rate limiter.
+     * 
+     * @return the viewer rate limiter
+     */
+    public ViewerRateLimiter getViewerRateLimiter() {
+        return viewerRateLimiter;
+    }
+
+    /**
+     * Gets the global live indicator budget.
+     * 
+     * @return the indicator budget
+     */
+    public IndicatorBudget getIndicatorBudget() {
+        return indicatorBudget;
+    }
+
+    /**
+     * Gets the governor that adapts indicator fidelity to the tick time.
+     * 
+     * @return the fidelity governor
+     */
+    public FidelityGovernor getFidelityGovernor() {
+        return fidelityGovernor;
+    }
+
+    /**
+     * Gets the damage indicator animator.
+     * 
+     * @return the indicator animator
+     */
+    public IndicatorAnimator getIndicatorAnimator() {
+        return indicatorAnimator;
+    }
+
     /**
      * Gets the player stats instance.
      * 
@@ -1637,6 +1535,7 @@ public class VitalStrike extends JavaPlugin implements Listener {
      */
     public void refreshPlayerDamageFormat(Player player) {
         damageFormatCache.remove(player.getUniqueId());
+        permissionManager.invalidate(player);
         logger.info("Refreshed damage format for player: " + player.getName());
     }
 
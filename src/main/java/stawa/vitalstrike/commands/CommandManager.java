@@ -14,6 +14,10 @@ import stawa.vitalstrike.HelpManager;
 import stawa.vitalstrike.PlayerManager;
 import stawa.vitalstrike.PlayerStats;
 import stawa.vitalstrike.VitalStrike;
+import stawa.vitalstrike.indicators.ComponentCache;
+import stawa.vitalstrike.indicators.FidelityGovernor;
+import stawa.vitalstrike.indicators.IndicatorBudget;
+import stawa.vitalstrike.indicators.DisplayPool;
 import stawa.vitalstrike.logger.VitalLogger;
 
 /**
@@ -29,6 +33,7 @@ public class CommandManager {
     private static final String CMD_STATS = "stats";
     private static final String CMD_TOGGLE = "toggle";
     private static final String CMD_PERMISSIONS = "perm";
+    private static final String CMD_PERF = "perf";
 
     private final VitalStrike plugin;
     private final VitalLogger logger;
@@ -95,6 +100,8 @@ public class CommandManager {
                     return handleHologramCommand(sender, args);
                 case CMD_PERMISSIONS:
                     return handlePermissionsCommand(sender, args);
+                case CMD_PERF:
+                    return handlePerfCommand(sender);
                 case CMD_VITAL_AWAKENING, CMD_VA:
                     return giveItemCommand.onCommand(sender, command, label,
                             args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : new String[0]);
@@ -194,6 +201,10 @@ public class CommandManager {
             playerManager.getDatabase().set(path, permissions);
             playerManager.saveDatabase();
 
+            if (permission.startsWith("vitalstrike.group.")) {
+                plugin.refreshPlayerDamageFormat(targetPlayer);
+            }
+
             sender.sendMessage(MiniMessage.miniMessage().deserialize(
                     "<green>Removed permission <yellow>" + permission + "</yellow> from player <yellow>"
                             + targetPlayer.getName() + "</yellow>"));
@@ -469,6 +480,47 @@ public class CommandManager {
         }
     }
 
+    /**
+     * Handles the perf command.
+     * Shows live damage indicator and display pool statistics.
+     * 
+     * @param sender the command sender
+     * @return true if the command was handled successfully, false otherwise
+     */
+    private boolean handlePerfCommand(CommandSender sender) {
+        if (!hasPermission(sender, "vitalstrike.perf")) {
+            return false;
+        }
+
+        DisplayPool pool = plugin.getDisplayPool();
+        ComponentCache cache = plugin.getComponentCache();
+        FidelityGovernor governor = plugin.getFidelityGovernor();
+        IndicatorBudget budget = plugin.getIndicatorBudget();
+        sender.sendMessage(MiniMessage.miniMessage().deserialize(
+                "<dark_gray><strikethrough>                    </strikethrough>\n" +
+                        "<gold><bold>VitalStrike Performance</bold></gold>\n" +
+                        "<yellow>Fidelity Tier: <white>" + governor.getTier() +
+                        String.format(" <gray>(MSPT %.1f)\n", governor.getMspt()) +
+                        "<yellow>Live Indicators: <white>" + plugin.getIndicatorAnimator().getLiveCount() + "\n" +
+                        "<yellow>Indicator Budget: <white>" + budget.getOccupancy() + "/" + budget.getMaxLive() +
+                        " <gray>(" + budget.getEvicted() + " cut short, " + budget.getRefused() + " refused)\n" +
+                        "<yellow>Rate Limited Views: <white>" + plugin.getViewerRateLimiter().getSkipped() + "\n" +
+                        "<yellow>Pool Hit Rate: <white>" +
+                        String.format("%.1f%%", pool.getHitRate() * 100) +
+                        " <gray>(" + pool.getHits() + " hits, " + pool.getMisses() + " misses)\n" +
+                        "<yellow>Pooled Idle Displays: <white>" + pool.getIdleCount() + "\n" +
+                        "<yellow>Displays Spawned/Discarded: <white>" + pool.getSpawned() + "/" +
+                        pool.getDiscarded() + "\n" +
+                        "<yellow>Text Cache Hit Rate: <white>" +
+                        String.format("%.1f%%", cache.getHitRate() * 100) +
+                        " <gray>(" + cache.getHits() + " hits, " + cache.getMisses() + " misses, " +
+                        cache.getEvictions() + " evictions)\n" +
+                        "<yellow>Cached Texts: <white>" + cache.size() + "/" + cache.getMaxSize() + "\n" +
+                        "<yellow>Suppressed Chunks: <white>" + plugin.getDensityLimiter().getSuppressedCount() + "\n" +
+                        "<dark_gray><strikethrough>                    </strikethrough>"));
+        return true;
+    }
+
     /**
      * Handles the hologram command.
      */
@@ -742,6 +794,8 @@ public class CommandManager {
             completions.add(CMD_HOLOGRAM);
         if (sender.hasPermission("vitalstrike.admin.permissions"))
             completions.add(CMD_PERMISSIONS);
+        if (sender.hasPermission("vitalstrike.perf"))
+            completions.add(CMD_PERF);
         if (sender.hasPermission("vitalstrike.vitalawakening")) {
             completions.add(CMD_VITAL_AWAKENING);
             completions.add(CMD_VA);
@@ -0,0 +1,190 @@
+package stawa.vitalstrike.indicators;
+
+/**
+ * Animation settings container class.
+ * Holds the tick timings and motion parameters shared by a damage indicator
+ * for its whole lifetime.
+ *
+ * The scale and motion curves are baked into tables indexed by tick when the
+ * settings are created, so animating an indicator only looks values up. The
+ * easing is part of the tables and costs nothing at runtime.
+ */
+public class AnimationSettings {
+    /**
+     * The longest teleport duration the client accepts for display entities.
+     */
+    static final int MAX_TELEPORT_DURATION = 59;
+
+    final int fadeInTicks;
+    final int fadeOutTicks;
+    final int totalTicks;
+    final int startFadeOutAt;
+    final Direction direction;
+    final double floatSpeed;
+    final double floatCurve;
+    final boolean keyframed;
+    final int segmentTicks;
+    final boolean mounted;
+    /**
+     * True when the indicator neither fades nor moves, so it only has to be
+     * released once its lifetime is over.
+     */
+    final boolean still;
+    /**
+     * For every tick that starts a keyframe of a mounted indicator, the tick of
+     * the following keyframe. Zero on all other ticks.
+     */
+    final int[] nextKeyframe;
+    /**
+     * The scale of the indicator on every tick of its lifetime.
+     */
+    final float[] scale;
+    /**
+     * The distance floated along the direction after each number of ticks.
+     */
+    final double[] rise;
+    /**
+     * The sideways wave offsets after each number of ticks, to be multiplied
+     * by the wave amplitude of the indicator.
+     */
+    final double[] waveX;
+    final double[] waveZ;
+    /**
+     * The same settings without mounting, for indicators that cannot ride
+     * their target.
+     */
+    private final AnimationSettings detached;
+
+    /**
+     * Creates a new set of animation settings.
+     * 
+     * @param fadeInTicks    number of ticks spent scaling in
+     * @param fadeOutTicks   number of ticks spent scaling out
+     * @param totalTicks     total lifetime of the indicator in ticks
+     * @param startFadeOutAt tick at which the fade out begins
+     * @param direction      the direction the indicator floats towards
+     * @param floatSpeed     the floating speed in blocks per tick
+     * @param floatCurve     the curve intensity of the floating motion
+     * @param keyframed      true to let the client interpolate between a few
+     *                       keyframes instead of updating the display every tick
+     * @param mounted        true to ride the damaged entity and animate only
+     *                       through the display transformation
+     * @param easing         the curve of the fades and the floating motion
+     */
+    public AnimationSettings(int fadeInTicks, int fadeOutTicks, int totalTicks,
+            int startFadeOutAt, Direction direction, double floatSpeed, double floatCurve, boolean keyframed,
+            boolean mounted, Easing easing) {
+        this.fadeInTicks = fadeInTicks;
+        this.fadeOutTicks = fadeOutTicks;
+        this.totalTicks = totalTicks;
+        this.startFadeOutAt = startFadeOutAt;
+        this.direction = direction;
+        this.floatSpeed = floatSpeed;
+        this.floatCurve = floatCurve;
+        this.keyframed = keyframed;
+        int segments = Math.max(1, (totalTicks + MAX_TELEPORT_DURATION - 1) / MAX_TELEPORT_DURATION);
+        this.segmentTicks = Math.max(1, (totalTicks + segments - 1) / segments);
+        this.mounted = mounted;
+        this.still = fadeInTicks <= 0 && fadeOutTicks <= 0 && floatSpeed == 0 && floatCurve == 0;
+        this.nextKeyframe = mounted ? buildKeyframes() : new int[0];
+        this.detached = mounted
+                ? new AnimationSettings(fadeInTicks, fadeOutTicks, totalTicks, startFadeOutAt, direction,
+                        floatSpeed, floatCurve, keyframed, false, easing)
+                : this;
+
+        int lastTick = Math.max(totalTicks, 0);
+        this.scale = new float[lastTick + 1];
+        for (int tick = 0; tick <= lastTick; tick++) {
+            scale[tick] = bakeScale(tick, easing);
+        }
+
+        // Keyframed motion looks up to one segment past the end of the lifetime.
+        int motionTicks = lastTick + segmentTicks;
+        this.rise = new double[motionTicks + 1];
+        this.waveX = new double[motionTicks + 1];
+        this.waveZ = new double[motionTicks + 1];
+        for (int tick = 1; tick <= motionTicks; tick++) {
+            double progress = (tick - 1) / 20.0;
+            waveX[tick] = waveX[tick - 1] + Math.sin(progress * Math.PI);
+            waveZ[tick] = waveZ[tick - 1] + Math.cos(progress * Math.PI);
+            rise[tick] = tick <= lastTick
+                    ? floatSpeed * lastTick * easing.apply((double) tick / lastTick)
+                    : rise[tick - 1] + floatSpeed;
+        }
+    }
+
+    /**
+     * Calculates the scale of the indicator on a tick.
+     */
+    private float bakeScale(int tick, Easing easing) {
+        if (tick < fadeInTicks) {
+            return (float) easing.apply((double) tick / fadeInTicks);
+        } else if (tick > startFadeOutAt && fadeOutTicks > 0) {
+            return (float) (1.0 - easing.apply(Math.min(1.0, (double) (tick - startFadeOutAt) / fadeOutTicks)));
+        }
+        return 1.0f;
+    }
+
+    /**
+     * Gets the scale of the indicator on a tick.
+     *
+     * @param tick the age of the indicator in ticks
+     * @return the scale
+     */
+    float scaleAt(int tick) {
+        return scale[Math.min(tick, scale.length - 1)];
+    }
+
+    /**
+     * Lays out the keyframes of a mounted indicator. A keyframe starts at the
+     * beginning, at the end of the fade in, at the start of the fade out and on
+     * every motion segment, and each one interpolates towards the next.
+     */
+    private int[] buildKeyframes() {
+        int lastTick = Math.max(totalTicks, 0);
+        boolean[] keyframe = new boolean[lastTick + 1];
+        for (int tick = 0; tick <= lastTick; tick += segmentTicks) {
+            keyframe[tick] = true;
+        }
+        keyframe[Math.clamp(fadeInTicks, 0, lastTick)] = true;
+        keyframe[Math.clamp(startFadeOutAt, 0, lastTick)] = true;
+        keyframe[lastTick] = true;
+
+        int[] next = new int[lastTick + 1];
+        int following = lastTick;
+        for (int tick = lastTick - 1; tick >= 0; tick--) {
+            if (keyframe[tick]) {
+                next[tick] = following;
+                following = tick;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Gets these settings without mounting.
+     *
+     * @return settings that animate a display at its own location
+     */
+    public AnimationSettings detached() {
+        return detached;
+    }
+
+    /**
+     * Gets the total lifetime of the indicator.
+     * 
+     * @return the lifetime in ticks
+     */
+    public int getTotalTicks() {
+        return totalTicks;
+    }
+
+    /**
+     * Gets the tick at which the indicator starts fading out.
+     * 
+     * @return the fade out start in ticks
+     */
+    public int getStartFadeOutAt() {
+        return startFadeOutAt;
+    }
+}
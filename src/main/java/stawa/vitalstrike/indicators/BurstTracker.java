@@ -0,0 +1,281 @@
+package stawa.vitalstrike.indicators;
+
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+
+import net.kyori.adventure.text.Component;
+
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Merges rapid hits on the same target into a single damage indicator.
+ *
+ * The first hit on a target starts a burst and spawns an indicator as usual.
+ * Every further hit inside the burst window adds its damage to the burst and
+ * re-texts that live indicator in place with the summed value and, when
+ * enabled, the number of merged hits. A multi-hit weapon or a fast PvP
+ * exchange therefore costs one entity per burst and still shows the real
+ * total.
+ *
+ * Bursts are stored in an {@link IntKeyTable} keyed by the target's entity
+ * id, with the burst state in parallel primitive arrays, so a hit neither
+ * boxes nor hashes a UUID. A periodic sweep drops bursts whose window has
+ * closed, and bursts of dying or removed entities are dropped right away, so
+ * the table only ever holds the targets hit within the last window.
+ */
+public class BurstTracker implements Listener {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long SWEEP_INTERVAL_TICKS = 20L;
+
+    private final JavaPlugin plugin;
+    private final ComponentCache componentCache;
+    private final DamageTemplates damageTemplates;
+    private BukkitTask sweepTask;
+
+    private final IntKeyTable table;
+    private long[] startedAt;
+    private double[] totals;
+    private int[] hits;
+    private TextDisplay[] displays;
+    private DamageTemplate[] templates;
+
+    private boolean enabled = true;
+    private long window = 500L;
+    private DamageTemplate hitCountTemplate;
+
+    /**
+     * Creates a new BurstTracker.
+     *
+     * @param plugin          the plugin that owns the sweep task
+     * @param componentCache  the cache used to render damage totals
+     * @param damageTemplates the registry the hit count format is compiled with
+     */
+    public BurstTracker(JavaPlugin plugin, ComponentCache componentCache, DamageTemplates damageTemplates) {
+        this.plugin = plugin;
+        this.componentCache = componentCache;
+        this.damageTemplates = damageTemplates;
+        this.table = new IntKeyTable(INITIAL_CAPACITY, new Bursts());
+    }
+
+    /**
+     * Registers the death and removal listener and starts the sweep task.
+     */
+    public void start() {
+        if (sweepTask != null) {
+            return;
+        }
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        sweepTask = plugin.getServer().getScheduler().runTaskTimer(plugin,
+                () -> sweep(System.currentTimeMillis()), SWEEP_INTERVAL_TICKS, SWEEP_INTERVAL_TICKS);
+    }
+
+    /**
+     * Stops the sweep task and forgets every burst.
+     */
+    public void shutdown() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+        table.clear();
+    }
+
+    /**
+     * Updates the burst settings and ends every running burst.
+     *
+     * @param enabled        false to give every hit its own indicator
+     * @param window         milliseconds after the first hit during which hits
+     *                       are merged
+     * @param hitCountFormat the format appended to merged indicators with
+     *                       {@code %d} as the hit count, or null to hide the
+     *                       hit count
+     */
+    public void configure(boolean enabled, long window, String hitCountFormat) {
+        this.enabled = enabled;
+        this.window = Math.max(0L, window);
+        this.hitCountTemplate = hitCountFormat != null ? damageTemplates.get(hitCountFormat) : null;
+        table.clear();
+    }
+
+    /**
+     * Adds a hit to the target's running burst, updating its indicator.
+     *
+     * @param target the entity id of the damaged entity
+     * @param damage the damage dealt by the hit
+     * @param now    the current time in milliseconds
+     * @return true if the hit was merged, false if it needs its own indicator
+     */
+    public boolean merge(int target, double damage, long now) {
+        if (!enabled || table.size() == 0) {
+            return false;
+        }
+
+        int slot = table.find(target);
+        if (slot < 0) {
+            return false;
+        }
+        if (now - startedAt[slot] >= window || !displays[slot].isValid()) {
+            table.delete(slot);
+            return false;
+        }
+
+        totals[slot] += damage;
+        hits[slot]++;
+        displays[slot].text(render(templates[slot], totals[slot], hits[slot]));
+        return true;
+    }
+
+    /**
+     * Starts a new burst for a target around a freshly spawned indicator.
+     *
+     * @param target   the entity id of the damaged entity
+     * @param display  the indicator showing the first hit
+     * @param template the damage format of the indicator
+     * @param damage   the damage dealt by the first hit
+     * @param now      the current time in milliseconds
+     */
+    public void start(int target, TextDisplay display, DamageTemplate template, double damage, long now) {
+        if (!enabled || window == 0) {
+            return;
+        }
+
+        int slot = table.find(target);
+        if (slot < 0) {
+            slot = table.insert(target);
+        }
+        startedAt[slot] = now;
+        totals[slot] = damage;
+        hits[slot] = 1;
+        displays[slot] = display;
+        templates[slot] = template;
+    }
+
+    /**
+     * Forgets the burst of a target.
+     *
+     * @param target the entity id of the entity
+     */
+    public void remove(int target) {
+        if (table.size() == 0) {
+            return;
+        }
+        int slot = table.find(target);
+        if (slot >= 0) {
+            table.delete(slot);
+        }
+    }
+
+    /**
+     * Renders the text of a burst indicator.
+     *
+     * @param template the damage format of the indicator
+     * @param total    the summed damage of the burst
+     * @param hitCount the number of merged hits
+     * @return the indicator text
+     */
+    public Component render(DamageTemplate template, double total, int hitCount) {
+        Component text = componentCache.render(template, total);
+        if (hitCount > 1 && hitCountTemplate != null) {
+            text = text.append(componentCache.render(hitCountTemplate, hitCount));
+        }
+        return text;
+    }
+
+    /**
+     * Gets the number of running bursts.
+     *
+     * @return the burst count
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Drops the burst of an entity that died.
+     *
+     * @param event the entity death event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityDeath(EntityDeathEvent event) {
+        remove(event.getEntity().getEntityId());
+    }
+
+    /**
+     * Drops the burst of an entity that left its world.
+     *
+     * @param event the entity remove from world event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemoveFromWorld(EntityRemoveFromWorldEvent event) {
+        remove(event.getEntity().getEntityId());
+    }
+
+    /**
+     * Drops every burst whose window closed before the given time.
+     */
+    private void sweep(long now) {
+        table.removeIf(slot -> now - startedAt[slot] >= window);
+    }
+
+    /**
+     * Keeps the burst state arrays in step with the slots of the table.
+     */
+    private final class Bursts implements IntKeyTable.Values {
+        /**
+         * Replaces the burst state with arrays of the given capacity.
+         */
+        @Override
+        public void resize(int capacity, int[] relocated) {
+            long[] oldStartedAt = startedAt;
+            double[] oldTotals = totals;
+            int[] oldHits = hits;
+            TextDisplay[] oldDisplays = displays;
+            DamageTemplate[] oldTemplates = templates;
+
+            startedAt = new long[capacity];
+            totals = new double[capacity];
+            hits = new int[capacity];
+            displays = new TextDisplay[capacity];
+            templates = new DamageTemplate[capacity];
+            if (relocated == null) {
+                return;
+            }
+            for (int i = 0; i < relocated.length; i++) {
+                int slot = relocated[i];
+                if (slot >= 0) {
+                    startedAt[slot] = oldStartedAt[i];
+                    totals[slot] = oldTotals[i];
+                    hits[slot] = oldHits[i];
+                    displays[slot] = oldDisplays[i];
+                    templates[slot] = oldTemplates[i];
+                }
+            }
+        }
+
+        /**
+         * Moves a burst from one slot to another.
+         */
+        @Override
+        public void move(int from, int to) {
+            startedAt[to] = startedAt[from];
+            totals[to] = totals[from];
+            hits[to] = hits[from];
+            displays[to] = displays[from];
+            templates[to] = templates[from];
+        }
+
+        /**
+         * Releases the display and template of a freed slot.
+         */
+        @Override
+        public void clear(int slot) {
+            displays[slot] = null;
+            templates[slot] = null;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import net.kyori.adventure.text.Component;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Caps the damage indicators of a single chunk.
+ *
+ * Every chunk has a budget of live indicators and a rolling rate of damage
+ * events. A chunk whose rate goes over the threshold, as mob grinders and
+ * crusher farms do, is suppressed until its rate falls back below half the
+ * threshold. Hits of a suppressed chunk, and hits that find the chunk budget
+ * used up, do not spawn indicators of their own. Depending on the mode they
+ * are either added to one summary display per chunk or dropped silently.
+ *
+ * Summary displays take a place in the {@link IndicatorBudget} at
+ * environment priority. They are re-texted by a periodic task rather than on
+ * every hit, which also shows them to the players that are in range at the
+ * time, and are released once their chunk has been quiet for the summary
+ * duration.
+ */
+public class ChunkDensityLimiter {
+    private static final long UPDATE_INTERVAL_TICKS = 5L;
+    private static final long RATE_WINDOW = 1000L;
+    private static final String DEFAULT_SUMMARY_FORMAT = "<gray>x%d hits, <red>%.0f</red> dmg";
+
+    private final JavaPlugin plugin;
+    private final DisplayPool displayPool;
+    private final IndicatorBudget budget;
+    private final DamageTemplates damageTemplates;
+    private final Function<Location, Player[]> viewerLookup;
+    private final Map<UUID, Map<Long, ChunkState>> worlds = new HashMap<>();
+    private BukkitTask updateTask;
+    private int summaryCount;
+
+    private boolean enabled = true;
+    private int maxLive = 12;
+    private double maxRate = 40.0;
+    private boolean summaryMode = true;
+    private DamageTemplate summaryTemplate;
+    private long summaryDuration = 2000L;
+    private long indicatorLifetime = 1500L;
+
+    /**
+     * The indicator budget, event rate and summary of one chunk.
+     */
+    private static class ChunkState {
+        long[] expiries;
+        long windowStart;
+        int currentEvents;
+        int previousEvents;
+        long lastEvent;
+        boolean suppressed;
+
+        TextDisplay summary;
+        Location summaryLocation;
+        Player[] summaryViewers;
+        int summaryHits;
+        double summaryDamage;
+        boolean summaryDirty;
+
+        ChunkState(int maxLive) {
+            this.expiries = new long[maxLive];
+        }
+    }
+
+    /**
+     * Creates a new ChunkDensityLimiter.
+     *
+     * @param plugin          the plugin that owns the update task
+     * @param displayPool     the pool summary displays are taken from
+     * @param budget          the budget summary displays reserve a place in
+     * @param damageTemplates the registry summary formats are compiled with
+     * @param viewerLookup    finds the players in range of a summary
+     */
+    public ChunkDensityLimiter(JavaPlugin plugin, DisplayPool displayPool, IndicatorBudget budget,
+            DamageTemplates damageTemplates, Function<Location, Player[]> viewerLookup) {
+        this.plugin = plugin;
+        this.displayPool = displayPool;
+        this.budget = budget;
+        this.damageTemplates = damageTemplates;
+        this.summaryTemplate = damageTemplates.compile(DEFAULT_SUMMARY_FORMAT, 2);
+        this.viewerLookup = viewerLookup;
+    }
+
+    /**
+     * Starts the task that updates and expires summary displays.
+     */
+    public void start() {
+        if (updateTask != null) {
+            return;
+        }
+        updateTask = plugin.getServer().getScheduler().runTaskTimer(plugin,
+                () -> update(System.currentTimeMillis()), UPDATE_INTERVAL_TICKS, UPDATE_INTERVAL_TICKS);
+    }
+
+    /**
+     * Stops the update task and releases every summary display.
+     */
+    public void shutdown() {
+        if (updateTask != null) {
+            updateTask.cancel();
+            updateTask = null;
+        }
+        clear();
+    }
+
+    /**
+     * Updates the density limits and forgets every chunk.
+     *
+     * @param enabled           false to never limit indicators
+     * @param maxLive           the maximum number of live indicators per chunk
+     * @param maxRate           the damage events per second above which a chunk
+     *                          is suppressed
+     * @param summaryMode       true to aggregate limited hits in a summary
+     *                          display, false to drop them
+     * @param summaryFormat     the summary format with {@code %d} as the hit
+     *                          count and {@code %f} as the damage total
+     * @param summaryDuration   milliseconds a summary stays after its last hit
+     * @param indicatorLifetime milliseconds a regular indicator stays alive
+     */
+    public void configure(boolean enabled, int maxLive, double maxRate, boolean summaryMode, String summaryFormat,
+            long summaryDuration, long indicatorLifetime) {
+        this.enabled = enabled;
+        this.maxLive = Math.max(1, maxLive);
+        this.maxRate = Math.max(1.0, maxRate);
+        this.summaryMode = summaryMode;
+        this.summaryTemplate = damageTemplates.compile(summaryFormat, 2);
+        this.summaryDuration = Math.max(0L, summaryDuration);
+        this.indicatorLifetime = Math.max(0L, indicatorLifetime);
+        clear();
+    }
+
+    /**
+     * Records a damage event in its chunk and decides whether it may spawn
+     * its own indicator. An admitted hit takes a slot of the chunk budget for
+     * the lifetime of its indicator. A refused hit has already been added to
+     * the chunk summary, if summaries are enabled.
+     *
+     * @param loc     the location of the indicator
+     * @param damage  the damage dealt by the hit
+     * @param now     the current time in milliseconds
+     * @param viewers the players that would see the indicator
+     * @return true if the hit may spawn its own indicator
+     */
+    public boolean admit(Location loc, double damage, long now, Player[] viewers) {
+        if (!enabled) {
+            return true;
+        }
+
+        ChunkState state = worlds.computeIfAbsent(loc.getWorld().getUID(), id -> new HashMap<>())
+                .computeIfAbsent(chunkKey(loc.getBlockX() >> 4, loc.getBlockZ() >> 4),
+                        key -> new ChunkState(maxLive));
+        double rate = recordEvent(state, now);
+
+        if (state.suppressed) {
+            state.suppressed = rate >= maxRate / 2;
+        } else {
+            state.suppressed = rate > maxRate;
+        }
+
+        if (!state.suppressed) {
+            long[] expiries = state.expiries;
+            for (int i = 0; i < expiries.length; i++) {
+                if (expiries[i] <= now) {
+                    expiries[i] = now + indicatorLifetime;
+                    return true;
+                }
+            }
+        }
+
+        if (summaryMode) {
+            addToSummary(state, loc, damage, viewers);
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of chunks that are currently suppressed.
+     *
+     * @return the suppressed chunk count
+     */
+    public int getSuppressedCount() {
+        int count = 0;
+        for (Map<Long, ChunkState> chunks : worlds.values()) {
+            for (ChunkState state : chunks.values()) {
+                if (state.suppressed) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of summary displays that are currently shown.
+     *
+     * @return the live summary count
+     */
+    public int getSummaryCount() {
+        return summaryCount;
+    }
+
+    /**
+     * Counts an event in the rolling window of a chunk and returns the events
+     * per second over the last window.
+     */
+    private double recordEvent(ChunkState state, long now) {
+        long elapsed = now - state.windowStart;
+        if (elapsed >= RATE_WINDOW) {
+            state.previousEvents = elapsed >= RATE_WINDOW * 2 ? 0 : state.currentEvents;
+            state.currentEvents = 0;
+            state.windowStart = now - now % RATE_WINDOW;
+            elapsed = now - state.windowStart;
+        }
+        state.currentEvents++;
+        state.lastEvent = now;
+
+        double previousWeight = 1.0 - (double) elapsed / RATE_WINDOW;
+        return state.previousEvents * previousWeight + state.currentEvents;
+    }
+
+    /**
+     * Adds a hit to the summary of a chunk, showing the summary the first time
+     * if the budget has room for it.
+     */
+    private void addToSummary(ChunkState state, Location loc, double damage, Player[] viewers) {
+        if (state.summary != null && !state.summary.isValid()) {
+            releaseSummary(state);
+        }
+        if (state.summary == null) {
+            if (!budget.reserve(IndicatorPriority.ENVIRONMENT)) {
+                return;
+            }
+            state.summaryHits = 1;
+            state.summaryDamage = damage;
+            state.summary = displayPool.acquire(loc, renderSummary(state), viewers);
+            state.summaryLocation = loc.clone();
+            state.summaryViewers = viewers;
+            state.summaryDirty = false;
+            summaryCount++;
+        } else {
+            state.summaryHits++;
+            state.summaryDamage += damage;
+            state.summaryDirty = true;
+        }
+    }
+
+    /**
+     * Re-texts changed summaries, releases summaries of quiet chunks and
+     * forgets chunks that have nothing left to track.
+     */
+    private void update(long now) {
+        Iterator<Map<Long, ChunkState>> worldIterator = worlds.values().iterator();
+        while (worldIterator.hasNext()) {
+            Map<Long, ChunkState> chunks = worldIterator.next();
+            Iterator<ChunkState> iterator = chunks.values().iterator();
+            while (iterator.hasNext()) {
+                ChunkState state = iterator.next();
+                boolean quiet = now - state.lastEvent >= summaryDuration;
+
+                if (state.summary != null) {
+                    if (quiet || !state.summary.isValid()) {
+                        releaseSummary(state);
+                    } else {
+                        refreshViewers(state);
+                        if (state.summaryDirty) {
+                            state.summary.text(renderSummary(state));
+                            state.summaryDirty = false;
+                        }
+                    }
+                }
+
+                if (state.summary == null && now - state.lastEvent >= Math.max(RATE_WINDOW * 2, indicatorLifetime)) {
+                    iterator.remove();
+                }
+            }
+            if (chunks.isEmpty()) {
+                worldIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Shows the summary of a chunk to the players now in range of it, hiding
+     * it from the ones that left.
+     */
+    private void refreshViewers(ChunkState state) {
+        Player[] viewers = viewerLookup.apply(state.summaryLocation);
+        displayPool.updateViewers(state.summary, state.summaryViewers, viewers);
+        state.summaryViewers = viewers;
+    }
+
+    /**
+     * Renders the summary text of a chunk.
+     */
+    private Component renderSummary(ChunkState state) {
+        return summaryTemplate.render(state.summaryHits, state.summaryDamage);
+    }
+
+    /**
+     * Hands the summary display of a chunk back to the pool and resets its
+     * totals.
+     */
+    private void releaseSummary(ChunkState state) {
+        displayPool.release(state.summary, state.summaryViewers);
+        state.summary = null;
+        state.summaryLocation = null;
+        state.summaryViewers = null;
+        summaryCount--;
+        state.summaryHits = 0;
+        state.summaryDamage = 0;
+        state.summaryDirty = false;
+    }
+
+    /**
+     * Releases every summary display and forgets every chunk.
+     */
+    private void clear() {
+        for (Map<Long, ChunkState> chunks : worlds.values()) {
+            for (ChunkState state : chunks.values()) {
+                if (state.summary != null) {
+                    releaseSummary(state);
+                }
+            }
+        }
+        worlds.clear();
+    }
+
+    /**
+     * Packs chunk coordinates into a single key.
+     */
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkZ << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+}
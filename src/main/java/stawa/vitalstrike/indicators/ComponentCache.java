@@ -0,0 +1,155 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Bounded least recently used cache of rendered damage indicator text.
+ *
+ * Entries are keyed by the template id and the damage value rounded to the
+ * precision the template displays it with, so hits that show the same number
+ * in the same format share one immutable component instead of rendering it
+ * again. The cache is shared with the indicator pipeline workers, so every
+ * access is synchronized, but a missing component is rendered outside the
+ * lock and only inserted under it.
+ */
+public class ComponentCache {
+    private static final long MAX_SCALED_DAMAGE = 1L << 39;
+    private static final long SCALED_DAMAGE_MASK = (1L << 40) - 1;
+
+    private final LinkedHashMap<Long, Component> entries;
+    private int maxSize;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a new ComponentCache.
+     *
+     * @param maxSize the maximum number of cached components, 0 to disable
+     *                caching
+     */
+    public ComponentCache(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Component> eldest) {
+                if (size() > ComponentCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Changes the maximum size and drops every cached component.
+     * Templates are recompiled with new ids on reload, so old entries could
+     * never be hit again.
+     *
+     * @param maxSize the maximum number of cached components, 0 to disable
+     *                caching
+     */
+    public synchronized void resize(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        entries.clear();
+    }
+
+    /**
+     * Gets the text for a damage value, rendering and caching it on a miss.
+     *
+     * @param template the compiled damage format
+     * @param damage   the damage amount
+     * @return the damage indicator text
+     */
+    public Component render(DamageTemplate template, double damage) {
+        if (maxSize == 0 || !template.isCacheable()) {
+            return template.render(damage);
+        }
+
+        long scaled = template.scaleDamage(damage);
+        if (Math.abs(scaled) >= MAX_SCALED_DAMAGE) {
+            return template.render(damage);
+        }
+
+        Long key = ((long) template.getId() << 40) | (scaled & SCALED_DAMAGE_MASK);
+        synchronized (this) {
+            Component component = entries.get(key);
+            if (component != null) {
+                hits++;
+                return component;
+            }
+            misses++;
+        }
+
+        Component rendered = template.render(damage);
+        synchronized (this) {
+            if (maxSize == 0) {
+                return rendered;
+            }
+            // Another worker may have rendered the same text meanwhile, in
+            // which case its component is kept so that both share it.
+            Component component = entries.putIfAbsent(key, rendered);
+            return component != null ? component : rendered;
+        }
+    }
+
+    /**
+     * Gets the number of renders served from the cache.
+     *
+     * @return the cache hit count
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of renders that had to build a new component.
+     *
+     * @return the cache miss count
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of components dropped to stay within the size bound.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the fraction of renders served from the cache.
+     *
+     * @return the hit rate between 0 and 1
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Gets the number of cached components.
+     *
+     * @return the cache size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the maximum number of cached components.
+     *
+     * @return the cache size bound
+     */
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,85 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.bukkit.event.entity.EntityDamageEvent;
+
+/**
+ * The compiled damage format of every damage cause.
+ *
+ * Formats are resolved into tables indexed by damage cause ordinal when the
+ * configuration is loaded, with every fallback already applied, so finding
+ * the template of a hit is an array access. A cause can also have a critical
+ * template that replaces its regular one by chance.
+ *
+ * Instances are immutable, so a hit can carry them to the indicator pipeline
+ * workers, where its template is resolved.
+ */
+public final class DamageFormats {
+    private final DamageTemplate[] templates;
+    private final DamageTemplate[] criticals;
+    private final double criticalChance;
+
+    /**
+     * Creates a new DamageFormats.
+     *
+     * @param templates      the template of every damage cause, indexed by
+     *                       ordinal
+     * @param criticals      the critical template of every damage cause,
+     *                       indexed by ordinal, null for causes that are never
+     *                       critical
+     * @param criticalChance the chance between 0 and 1 that a hit shows its
+     *                       critical template
+     */
+    public DamageFormats(DamageTemplate[] templates, DamageTemplate[] criticals, double criticalChance) {
+        this.templates = templates;
+        this.criticals = criticals;
+        this.criticalChance = criticalChance;
+    }
+
+    /**
+     * Creates a copy in which the given templates replace the regular ones.
+     * Replaced causes are never critical.
+     *
+     * @param overrides the replacing template of every damage cause, indexed by
+     *                  ordinal, null to keep the regular one
+     * @return the formats with the overrides applied
+     */
+    public DamageFormats override(DamageTemplate[] overrides) {
+        DamageTemplate[] overridden = templates.clone();
+        DamageTemplate[] overriddenCriticals = criticals.clone();
+        for (int i = 0; i < overrides.length; i++) {
+            if (overrides[i] != null) {
+                overridden[i] = overrides[i];
+                overriddenCriticals[i] = null;
+            }
+        }
+        return new DamageFormats(overridden, overriddenCriticals, criticalChance);
+    }
+
+    /**
+     * Gets the template of a hit, rolling for a critical one if the cause has
+     * one.
+     *
+     * @param cause the damage cause of the hit
+     * @return the template to render the hit with
+     */
+    public DamageTemplate resolve(EntityDamageEvent.DamageCause cause) {
+        int ordinal = cause.ordinal();
+        DamageTemplate critical = criticals[ordinal];
+        if (critical != null && ThreadLocalRandom.current().nextDouble() < criticalChance) {
+            return critical;
+        }
+        return templates[ordinal];
+    }
+
+    /**
+     * Gets the regular template of a damage cause.
+     *
+     * @param cause the damage cause
+     * @return the template
+     */
+    public DamageTemplate get(EntityDamageEvent.DamageCause cause) {
+        return templates[cause.ordinal()];
+    }
+}
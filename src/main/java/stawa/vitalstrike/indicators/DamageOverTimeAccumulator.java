@@ -0,0 +1,184 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Collects periodic damage such as burning, poison and wither ticks into one
+ * indicator per entity and cause.
+ *
+ * Damage over time ticks are not shown one by one. They are summed per
+ * entity and cause, and a summary indicator with the total is emitted once
+ * the accumulation interval has passed, or once the effect ended because no
+ * tick arrived for the end delay or the entity is gone. A burning herd or a
+ * poison arena then costs one display per entity every few seconds instead of
+ * one per tick. Summaries are queued in the indicator pipeline, so their text
+ * is rendered by a worker like that of any other hit.
+ */
+public class DamageOverTimeAccumulator {
+    private static final long SWEEP_INTERVAL_TICKS = 10L;
+
+    private final JavaPlugin plugin;
+    private final Consumer<PendingIndicator> emitter;
+    private final Map<Long, Accumulation> accumulations = new HashMap<>();
+    private BukkitTask sweepTask;
+
+    private boolean enabled = true;
+    private long interval = 3000L;
+    private long endDelay = 2500L;
+    private Set<EntityDamageEvent.DamageCause> causes = EnumSet.noneOf(EntityDamageEvent.DamageCause.class);
+
+    /**
+     * The damage collected so far for one entity and cause.
+     */
+    private static class Accumulation {
+        final PendingIndicator first;
+        PendingIndicator last;
+        double total;
+        long lastHit;
+
+        Accumulation(PendingIndicator first) {
+            this.first = first;
+            this.last = first;
+        }
+    }
+
+    /**
+     * Creates a new DamageOverTimeAccumulator.
+     *
+     * @param plugin  the plugin that owns the sweep task
+     * @param emitter queues an emitted summary to be rendered and shown
+     */
+    public DamageOverTimeAccumulator(JavaPlugin plugin, Consumer<PendingIndicator> emitter) {
+        this.plugin = plugin;
+        this.emitter = emitter;
+    }
+
+    /**
+     * Starts the task that emits finished accumulations.
+     */
+    public void start() {
+        if (sweepTask != null) {
+            return;
+        }
+        sweepTask = plugin.getServer().getScheduler().runTaskTimer(plugin,
+                () -> sweep(System.currentTimeMillis()), SWEEP_INTERVAL_TICKS, SWEEP_INTERVAL_TICKS);
+    }
+
+    /**
+     * Stops the sweep task and drops every accumulation.
+     */
+    public void shutdown() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+        accumulations.clear();
+    }
+
+    /**
+     * Updates the accumulation settings and drops every accumulation.
+     *
+     * @param enabled  false to show every damage over time tick on its own
+     * @param interval milliseconds after the first tick at which a summary is
+     *                 emitted
+     * @param endDelay milliseconds without a tick after which the effect is
+     *                 considered over
+     * @param causes   the damage causes that are accumulated
+     */
+    public void configure(boolean enabled, long interval, long endDelay, Set<EntityDamageEvent.DamageCause> causes) {
+        this.enabled = enabled;
+        this.interval = Math.max(0L, interval);
+        this.endDelay = Math.max(0L, endDelay);
+        this.causes = causes.isEmpty() ? EnumSet.noneOf(EntityDamageEvent.DamageCause.class) : EnumSet.copyOf(causes);
+        accumulations.clear();
+    }
+
+    /**
+     * Adds a damage over time tick to the accumulation of its entity and
+     * cause, emitting the summary if the interval is over.
+     *
+     * @param hit the captured hit
+     * @return true if the hit was accumulated, false if it is not damage over
+     *         time and needs its own indicator
+     */
+    public boolean accumulate(PendingIndicator hit) {
+        if (!enabled || hit.isSummary() || !causes.contains(hit.getCause())) {
+            return false;
+        }
+
+        long key = key(hit.getEntityId(), hit.getCause());
+        Accumulation accumulation = accumulations.get(key);
+        if (accumulation == null) {
+            accumulation = new Accumulation(hit);
+            accumulations.put(key, accumulation);
+        }
+        accumulation.total += hit.getDamage();
+        accumulation.lastHit = hit.getTime();
+        accumulation.last = hit;
+
+        if (hit.getTime() - accumulation.first.getTime() >= interval) {
+            accumulations.remove(key);
+            emit(accumulation, hit.getTime());
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of running accumulations.
+     *
+     * @return the accumulation count
+     */
+    public int size() {
+        return accumulations.size();
+    }
+
+    /**
+     * Emits every accumulation whose interval passed, whose effect ended or
+     * whose entity is gone.
+     */
+    private void sweep(long now) {
+        Iterator<Accumulation> iterator = accumulations.values().iterator();
+        while (iterator.hasNext()) {
+            Accumulation accumulation = iterator.next();
+            if (now - accumulation.first.getTime() >= interval
+                    || now - accumulation.lastHit >= endDelay
+                    || !accumulation.first.getEntity().isValid()) {
+                iterator.remove();
+                emit(accumulation, now);
+            }
+        }
+    }
+
+    /**
+     * Shows the summary of an accumulation above its entity, or where its
+     * last tick was seen if the entity is gone.
+     */
+    private void emit(Accumulation accumulation, long now) {
+        Entity entity = accumulation.first.getEntity();
+        Location location = entity.isValid()
+                ? entity.getLocation().add(0, entity.getHeight() + 0.5, 0)
+                : accumulation.last.getLocation();
+
+        PendingIndicator summary = new PendingIndicator(accumulation.first, entity, accumulation.total, location,
+                now);
+        emitter.accept(summary);
+    }
+
+    /**
+     * Packs an entity id and a damage cause into a single key.
+     */
+    private static long key(int entityId, EntityDamageEvent.DamageCause cause) {
+        return ((long) entityId << 32) | cause.ordinal();
+    }
+}
@@ -0,0 +1,341 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+/**
+ * A damage format compiled once into a reusable template.
+ *
+ * The legacy color codes of the format are converted and its single
+ * {@code %.Nf} or {@code %d} specifier is turned into a damage slot when the
+ * template is compiled. Rendering then only formats the damage value with a
+ * locale-independent formatter and drops it into the slot of the already
+ * parsed component tree. Formats of other values, such as a hit count and a
+ * damage total, can be compiled with a second slot that is filled in the
+ * same way.
+ *
+ * Formats that style every character separately, such as gradients, cannot
+ * keep a parsed tree because the number changes how the colors are spread.
+ * Those keep the converted MiniMessage text split around the slot and are
+ * parsed per render. Formats with specifiers this template does not
+ * understand fall back to {@link String#format(String, Object...)}.
+ */
+public final class DamageTemplate {
+    private static final char SLOT = '\uE000';
+    private static final int MAX_SLOTS = 2;
+    private static final Pattern[] SLOT_PATTERNS = {
+            Pattern.compile(String.valueOf(SLOT)), Pattern.compile(String.valueOf((char) (SLOT + 1)))
+    };
+    private static final Pattern PER_CHARACTER_TAG = Pattern.compile(
+            "<(gradient|rainbow|transition)[:>]", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_DECIMALS = 9;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L,
+            1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+    private static final double MAX_FAST_VALUE = 1.0e9;
+
+    private static final String[][] LEGACY_CODES = {
+            { "&c", "<red>" }, { "&4", "<dark_red>" }, { "&2", "<dark_green>" }, { "&6", "<gold>" },
+            { "&5", "<dark_purple>" }, { "&7", "<gray>" }, { "&9", "<blue>" }, { "&l", "<bold>" },
+            { "§c", "<red>" }, { "§4", "<dark_red>" }, { "§2", "<dark_green>" }, { "§6", "<gold>" },
+            { "§5", "<dark_purple>" }, { "§7", "<gray>" }, { "§9", "<blue>" }, { "§l", "<bold>" }
+    };
+
+    /**
+     * How a template produces its component.
+     */
+    private enum Mode {
+        /** The format has no damage value, the parsed component is reused. */
+        CONSTANT,
+        /** The damage value is substituted into the parsed component. */
+        SLOTTED,
+        /** The damage value is spliced into the converted text, then parsed. */
+        SPLICED,
+        /** The format is formatted and converted on every render. */
+        LEGACY
+    }
+
+    private final int id;
+    private final String source;
+    private final MiniMessage miniMessage;
+    private final Mode mode;
+    private final int[] decimals;
+    private final Component component;
+    private final String[] parts;
+
+    private DamageTemplate(int id, String source, MiniMessage miniMessage, Mode mode, int[] decimals,
+            Component component, String[] parts) {
+        this.id = id;
+        this.source = source;
+        this.miniMessage = miniMessage;
+        this.mode = mode;
+        this.decimals = decimals;
+        this.component = component;
+        this.parts = parts;
+    }
+
+    /**
+     * Compiles a damage format into a template.
+     *
+     * @param id          the id identifying the template
+     * @param source      the raw damage format from the configuration
+     * @param miniMessage the MiniMessage instance used for parsing
+     * @return the compiled template
+     */
+    public static DamageTemplate compile(int id, String source, MiniMessage miniMessage) {
+        return compile(id, source, miniMessage, 1);
+    }
+
+    /**
+     * Compiles a format of one or two values into a template. The values are
+     * filled into the specifiers of the format in order.
+     *
+     * @param id          the id identifying the template
+     * @param source      the raw format from the configuration
+     * @param miniMessage the MiniMessage instance used for parsing
+     * @param slots       the number of values, 1 or 2
+     * @return the compiled template
+     */
+    public static DamageTemplate compile(int id, String source, MiniMessage miniMessage, int slots) {
+        int maxSlots = Math.max(1, Math.min(slots, MAX_SLOTS));
+        String converted = convertLegacyCodes(source);
+        StringBuilder text = new StringBuilder(converted.length());
+        int[] slotIndexes = new int[maxSlots];
+        int[] decimals = new int[maxSlots];
+        int slotCount = 0;
+
+        int i = 0;
+        while (i < converted.length()) {
+            char c = converted.charAt(i);
+            if (c != '%') {
+                text.append(c);
+                i++;
+                continue;
+            }
+
+            int end = i + 1;
+            if (end < converted.length() && converted.charAt(end) == '%') {
+                text.append('%');
+                i = end + 1;
+                continue;
+            }
+
+            int precision = 6;
+            if (end < converted.length() && converted.charAt(end) == '.') {
+                int digitsStart = end + 1;
+                end = digitsStart;
+                while (end < converted.length() && Character.isDigit(converted.charAt(end))) {
+                    end++;
+                }
+                precision = end > digitsStart ? Integer.parseInt(converted.substring(digitsStart, end)) : -1;
+            }
+
+            char conversion = end < converted.length() ? converted.charAt(end) : 0;
+            if (conversion == 'd' && precision == 6 && end == i + 1) {
+                precision = 0;
+            } else if (conversion != 'f') {
+                precision = -1;
+            }
+
+            if (slotCount == maxSlots || precision < 0 || precision > MAX_DECIMALS) {
+                return new DamageTemplate(id, source, miniMessage, Mode.LEGACY, new int[maxSlots], null, null);
+            }
+
+            slotIndexes[slotCount] = text.length();
+            decimals[slotCount] = precision;
+            text.append((char) (SLOT + slotCount));
+            slotCount++;
+            i = end + 1;
+        }
+
+        String compiled = text.toString();
+        if (slotCount == 0) {
+            return new DamageTemplate(id, source, miniMessage, Mode.CONSTANT, new int[1],
+                    miniMessage.deserialize(compiled), null);
+        }
+        int[] slotDecimals = slotCount == maxSlots ? decimals : Arrays.copyOf(decimals, slotCount);
+        if (PER_CHARACTER_TAG.matcher(compiled).find()) {
+            String[] parts = new String[slotCount + 1];
+            int start = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                parts[slot] = compiled.substring(start, slotIndexes[slot]);
+                start = slotIndexes[slot] + 1;
+            }
+            parts[slotCount] = compiled.substring(start);
+            return new DamageTemplate(id, source, miniMessage, Mode.SPLICED, slotDecimals, null, parts);
+        }
+        return new DamageTemplate(id, source, miniMessage, Mode.SLOTTED, slotDecimals,
+                miniMessage.deserialize(compiled), null);
+    }
+
+    /**
+     * Renders the template for a damage value.
+     *
+     * @param damage the damage amount
+     * @return the damage indicator text
+     */
+    public Component render(double damage) {
+        switch (mode) {
+            case CONSTANT:
+                return component;
+            case SLOTTED:
+                return fillSlot(component, 0, damage);
+            case SPLICED:
+                return miniMessage.deserialize(parts[0] + formatDamage(damage) + parts[1]);
+            default:
+                return miniMessage.deserialize(convertLegacyCodes(String.format(source, damage)));
+        }
+    }
+
+    /**
+     * Renders a template compiled with two slots.
+     *
+     * @param first  the value of the first slot
+     * @param second the value of the second slot
+     * @return the rendered text
+     */
+    public Component render(double first, double second) {
+        switch (mode) {
+            case CONSTANT:
+                return component;
+            case SLOTTED:
+                Component filled = fillSlot(component, 0, first);
+                return decimals.length > 1 ? fillSlot(filled, 1, second) : filled;
+            case SPLICED:
+                StringBuilder text = new StringBuilder(parts[0]).append(formatDecimal(first, decimals[0]))
+                        .append(parts[1]);
+                if (decimals.length > 1) {
+                    text.append(formatDecimal(second, decimals[1])).append(parts[2]);
+                }
+                return miniMessage.deserialize(text.toString());
+            default:
+                return miniMessage.deserialize(convertLegacyCodes(String.format(source, first, second)));
+        }
+    }
+
+    /**
+     * Replaces a slot of a parsed component with a formatted value.
+     */
+    private Component fillSlot(Component parsed, int slot, double value) {
+        return parsed.replaceText(TextReplacementConfig.builder()
+                .match(SLOT_PATTERNS[slot])
+                .replacement(formatDecimal(value, decimals[slot]))
+                .once()
+                .build());
+    }
+
+    /**
+     * Checks whether rendered components only depend on the damage value
+     * rounded to the slot precision, which makes them safe to cache.
+     *
+     * @return true if rendered components can be cached
+     */
+    public boolean isCacheable() {
+        return (mode == Mode.SLOTTED || mode == Mode.SPLICED) && decimals.length == 1;
+    }
+
+    /**
+     * Rounds the damage value to the slot precision, as a whole number of the
+     * smallest displayed unit.
+     *
+     * @param damage the damage amount
+     * @return the damage scaled by the slot precision and rounded half up
+     */
+    public long scaleDamage(double damage) {
+        long scaled = Math.round(Math.abs(damage) * POWERS_OF_TEN[decimals[0]]);
+        return damage < 0 ? -scaled : scaled;
+    }
+
+    /**
+     * Formats the damage value with the precision of the damage slot.
+     *
+     * @param damage the damage amount
+     * @return the formatted damage value
+     */
+    public String formatDamage(double damage) {
+        return formatDecimal(damage, decimals[0]);
+    }
+
+    /**
+     * Gets the id of this template.
+     * Ids are unique for the lifetime of the plugin, even across reloads.
+     *
+     * @return the template id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the raw damage format this template was compiled from.
+     *
+     * @return the raw damage format
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the number of decimals the damage value is shown with.
+     *
+     * @return the damage slot precision
+     */
+    public int getDecimals() {
+        return decimals[0];
+    }
+
+    /**
+     * Formats a value with a fixed number of decimals, rounding half up.
+     * Always uses a dot as decimal separator regardless of the server locale.
+     *
+     * @param value    the value to format
+     * @param decimals the number of decimals, between 0 and 9
+     * @return the formatted value
+     */
+    static String formatDecimal(double value, int decimals) {
+        double magnitude = Math.abs(value);
+        if (!(magnitude < MAX_FAST_VALUE)) {
+            return String.format(Locale.ROOT, "%." + decimals + "f", value);
+        }
+
+        long scale = POWERS_OF_TEN[decimals];
+        long scaled = Math.round(magnitude * scale);
+        StringBuilder builder = new StringBuilder(20);
+        if (value < 0 && scaled != 0) {
+            builder.append('-');
+        }
+        builder.append(scaled / scale);
+        if (decimals > 0) {
+            builder.append('.');
+            long fraction = scaled % scale;
+            for (long digit = scale / 10; digit > 1 && fraction < digit; digit /= 10) {
+                builder.append('0');
+            }
+            builder.append(fraction);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Converts legacy ampersand (&) and section symbol (§) color codes to
+     * MiniMessage tags.
+     *
+     * @param text the text containing legacy color codes
+     * @return the text with color codes converted to MiniMessage format
+     */
+    public static String convertLegacyCodes(String text) {
+        if (text.indexOf('&') < 0 && text.indexOf('§') < 0) {
+            return text;
+        }
+        for (String[] code : LEGACY_CODES) {
+            text = text.replace(code[0], code[1]);
+        }
+        return text;
+    }
+}
@@ -0,0 +1,107 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * Registry of compiled damage format templates, keyed by the raw format.
+ *
+ * Every format in {@code simple-damage-formats}, {@code damage-formats} and
+ * {@code group-damage-formats} is compiled when the configuration is loaded.
+ * Formats that only exist as code defaults are compiled the first time they
+ * are requested and kept until the next reload. Lookups may come from the
+ * indicator pipeline workers, so the registry is safe to use from any thread.
+ */
+public class DamageTemplates {
+    private final MiniMessage miniMessage;
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile Map<String, DamageTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new, empty DamageTemplates registry.
+     *
+     * @param miniMessage the MiniMessage instance used to parse formats
+     */
+    public DamageTemplates(MiniMessage miniMessage) {
+        this.miniMessage = miniMessage;
+    }
+
+    /**
+     * Replaces all templates with freshly compiled ones for the configured
+     * damage formats.
+     *
+     * @param config the plugin configuration
+     */
+    public void compile(FileConfiguration config) {
+        Map<String, DamageTemplate> compiled = new ConcurrentHashMap<>();
+        compileSection(config.getConfigurationSection("simple-damage-formats"), compiled);
+        compileSection(config.getConfigurationSection("damage-formats"), compiled);
+
+        ConfigurationSection groups = config.getConfigurationSection("group-damage-formats");
+        if (groups != null) {
+            for (String group : groups.getKeys(false)) {
+                compileSection(groups.getConfigurationSection(group + ".damage-formats"), compiled);
+            }
+        }
+        templates = compiled;
+    }
+
+    /**
+     * Compiles every format string of a section into the given map.
+     */
+    private void compileSection(ConfigurationSection section, Map<String, DamageTemplate> compiled) {
+        if (section == null) {
+            return;
+        }
+        for (String key : section.getKeys(false)) {
+            String format = section.getString(key);
+            if (format != null && !compiled.containsKey(format)) {
+                compiled.put(format, DamageTemplate.compile(nextId.getAndIncrement(), format, miniMessage));
+            }
+        }
+    }
+
+    /**
+     * Gets the compiled template for a damage format, compiling it if it was not
+     * part of the configuration.
+     *
+     * @param format the raw damage format
+     * @return the compiled template
+     */
+    public DamageTemplate get(String format) {
+        DamageTemplate template = templates.get(format);
+        if (template == null) {
+            template = templates.computeIfAbsent(format,
+                    key -> DamageTemplate.compile(nextId.getAndIncrement(), key, miniMessage));
+        }
+        return template;
+    }
+
+    /**
+     * Compiles a format of one or two values into a template of its own.
+     * Such templates are not kept in the registry, since a format of two
+     * values must not be handed out where a damage format is expected.
+     *
+     * @param format the raw format
+     * @param slots  the number of values, 1 or 2
+     * @return the compiled template
+     */
+    public DamageTemplate compile(String format, int slots) {
+        return DamageTemplate.compile(nextId.getAndIncrement(), format, miniMessage, slots);
+    }
+
+    /**
+     * Gets the number of compiled templates.
+     *
+     * @return the template count
+     */
+    public int size() {
+        return templates.size();
+    }
+}
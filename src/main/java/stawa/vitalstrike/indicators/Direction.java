@@ -0,0 +1,47 @@
+package stawa.vitalstrike.indicators;
+
+/**
+ * Enum representing the direction of movement for the damage indicators.
+ */
+public enum Direction {
+    UP(0, 1, 0),
+    DOWN(0, -1, 0),
+    LEFT(-1, 0, 0),
+    RIGHT(1, 0, 0);
+
+    private final double x;
+    private final double y;
+    private final double z;
+
+    Direction(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Returns the direction from a string representation.
+     * 
+     * @param dir the string representation of the direction
+     * @return the direction enum
+     */
+    public static Direction fromString(String dir) {
+        try {
+            return valueOf(dir.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return DOWN;
+        }
+    }
+}
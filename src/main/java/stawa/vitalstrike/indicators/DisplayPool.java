@@ -0,0 +1,443 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+import net.kyori.adventure.text.Component;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.Transformation;
+import org.joml.AxisAngle4f;
+import org.joml.Vector3f;
+
+/**
+ * Keeps a per-world pool of hidden, non-persistent text displays that are
+ * recycled for damage indicators.
+ *
+ * Displays are never visible by default. Each one is shown only to the
+ * viewers it was acquired for through per-player entity visibility, so a hit
+ * costs one entity no matter how many players are watching.
+ *
+ * Acquiring a pooled display only re-texts and repositions an entity that
+ * already exists, which avoids the entity add, tracker registration and
+ * spawn and destroy packets of a fresh spawn for every hit. Surplus idle
+ * displays are removed once they have been unused for the configured idle
+ * timeout, but each world pool never shrinks below its minimum size.
+ *
+ * A world pool is filled up to its minimum size after its first display is
+ * released, a few spawns per tick at that display's location, so the first
+ * release in a world does not spawn the whole minimum at once.
+ */
+public class DisplayPool {
+    private static final long SHRINK_INTERVAL_TICKS = 100L;
+    private static final int PREFILL_PER_TICK = 2;
+    // The server copies a transformation when it is applied, so it can be shared.
+    private static final Transformation IDENTITY = new Transformation(new Vector3f(), new AxisAngle4f(),
+            new Vector3f(1.0f, 1.0f, 1.0f), new AxisAngle4f());
+
+    private final JavaPlugin plugin;
+    private final OrphanedDisplaySweeper sweeper;
+    private final Map<UUID, ArrayDeque<PooledDisplay>> idleDisplays = new HashMap<>();
+    private final Map<UUID, Location> prefillLocations = new HashMap<>();
+    private BukkitTask shrinkTask;
+    private BukkitTask prefillTask;
+
+    private boolean enabled = true;
+    private int minSize = 8;
+    private int maxSize = 64;
+    private long idleTimeout = 30_000L;
+    private float viewRange = 1.0f;
+
+    private long hits;
+    private long misses;
+    private long spawned;
+    private long discarded;
+
+    /**
+     * An idle display together with the time it was returned to the pool.
+     */
+    private static class PooledDisplay {
+        final TextDisplay display;
+        final long releasedAt;
+
+        PooledDisplay(TextDisplay display, long releasedAt) {
+            this.display = display;
+            this.releasedAt = releasedAt;
+        }
+    }
+
+    /**
+     * Creates a new DisplayPool.
+     *
+     * @param plugin  the plugin that owns the pooled displays
+     * @param sweeper the sweeper that tags every spawned display
+     */
+    public DisplayPool(JavaPlugin plugin, OrphanedDisplaySweeper sweeper) {
+        this.plugin = plugin;
+        this.sweeper = sweeper;
+    }
+
+    /**
+     * Updates the pool limits.
+     *
+     * @param enabled     false to spawn and remove displays without pooling
+     * @param minSize     the number of idle displays kept per world regardless of
+     *                    idle time
+     * @param maxSize     the maximum number of idle displays kept per world
+     * @param idleTimeout milliseconds an idle display above the minimum is kept
+     */
+    public void configure(boolean enabled, int minSize, int maxSize, long idleTimeout) {
+        this.enabled = enabled;
+        this.maxSize = Math.max(0, maxSize);
+        this.minSize = Math.clamp(minSize, 0, this.maxSize);
+        this.idleTimeout = Math.max(0L, idleTimeout);
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Sets the view range of every display handed out from now on, so the
+     * client culls indicators beyond it.
+     *
+     * @param distance the view distance in blocks
+     */
+    public void setViewDistance(double distance) {
+        // A view range of 1.0 equals the default entity tracking range of 64 blocks.
+        this.viewRange = (float) Math.max(0.0, distance / 64.0);
+    }
+
+    /**
+     * Starts the periodic task that shrinks idle pools.
+     */
+    public void start() {
+        if (shrinkTask != null) {
+            return;
+        }
+        shrinkTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::shrink,
+                SHRINK_INTERVAL_TICKS, SHRINK_INTERVAL_TICKS);
+    }
+
+    /**
+     * Stops the shrink and prefill tasks and removes every idle display.
+     */
+    public void shutdown() {
+        if (shrinkTask != null) {
+            shrinkTask.cancel();
+            shrinkTask = null;
+        }
+        clear();
+    }
+
+    /**
+     * Gets a text display at the given location showing the given text to the
+     * given viewers, reusing an idle display from the world pool when one is
+     * available.
+     *
+     * @param loc     the location to place the display at
+     * @param text    the text to show
+     * @param viewers the players allowed to see the display
+     * @return a ready to animate text display
+     */
+    public TextDisplay acquire(Location loc, Component text, Player[] viewers) {
+        World world = loc.getWorld();
+        ArrayDeque<PooledDisplay> pool = enabled ? idleDisplays.get(world.getUID()) : null;
+
+        while (pool != null && !pool.isEmpty()) {
+            TextDisplay display = pool.pollLast().display;
+            if (!display.isValid()) {
+                continue;
+            }
+            hits++;
+            reset(display, text);
+            display.teleport(loc);
+            show(display, viewers);
+            return display;
+        }
+
+        misses++;
+        TextDisplay display = spawn(loc, text);
+        show(display, viewers);
+        return display;
+    }
+
+    /**
+     * Prepares a display that is still shown for another use, re-texting and
+     * repositioning it and updating who can see it.
+     *
+     * @param display         the live display to reuse
+     * @param loc             the location to place the display at
+     * @param text            the text to show
+     * @param previousViewers the players the display is currently shown to
+     * @param viewers         the players allowed to see the display from now on
+     */
+    public void reuse(TextDisplay display, Location loc, Component text, Player[] previousViewers,
+            Player[] viewers) {
+        reset(display, text);
+        if (!display.isInsideVehicle()) {
+            display.teleport(loc);
+        }
+        updateViewers(display, previousViewers, viewers);
+    }
+
+    /**
+     * Changes who can see a live display, hiding it from the previous viewers
+     * that are not among the new ones.
+     *
+     * @param display         the live display
+     * @param previousViewers the players the display is currently shown to
+     * @param viewers         the players allowed to see the display from now on
+     */
+    public void updateViewers(TextDisplay display, Player[] previousViewers, Player[] viewers) {
+        for (Player previous : previousViewers) {
+            if (previous.isOnline() && !contains(viewers, previous)) {
+                previous.hideEntity(plugin, display);
+            }
+        }
+        show(display, viewers);
+    }
+
+    /**
+     * Returns a display to its world pool, or removes it when pooling is
+     * disabled or the pool is full.
+     *
+     * @param display the display to release
+     * @param viewers the players the display was shown to
+     */
+    public void release(TextDisplay display, Player[] viewers) {
+        if (!display.isValid()) {
+            return;
+        }
+
+        ArrayDeque<PooledDisplay> pool = enabled ? getOrCreatePool(display) : null;
+        if (pool == null || pool.size() >= maxSize) {
+            display.remove();
+            discarded++;
+            return;
+        }
+
+        for (Player viewer : viewers) {
+            if (viewer.isOnline()) {
+                viewer.hideEntity(plugin, display);
+            }
+        }
+        if (display.isInsideVehicle()) {
+            display.leaveVehicle();
+        }
+        pool.addLast(new PooledDisplay(display, System.currentTimeMillis()));
+    }
+
+    /**
+     * Gets the pool of the display's world, creating it and scheduling it to
+     * be filled up to the minimum size the first time the world is used.
+     */
+    private ArrayDeque<PooledDisplay> getOrCreatePool(TextDisplay display) {
+        UUID worldId = display.getWorld().getUID();
+        ArrayDeque<PooledDisplay> pool = idleDisplays.get(worldId);
+        if (pool == null) {
+            pool = new ArrayDeque<>();
+            idleDisplays.put(worldId, pool);
+            if (minSize > 1) {
+                prefillLocations.put(worldId, display.getLocation());
+                if (prefillTask == null) {
+                    prefillTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::prefill, 1L, 1L);
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Spawns a few idle displays into every pool that is still below its
+     * minimum size, stopping once every pool is filled.
+     */
+    private void prefill() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<UUID, Location>> iterator = prefillLocations.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Location> entry = iterator.next();
+            ArrayDeque<PooledDisplay> pool = idleDisplays.get(entry.getKey());
+            Location loc = entry.getValue();
+            // Spawning into an unloaded chunk would load it, so a pool whose
+            // location was unloaded meanwhile is left to fill through releases.
+            if (pool == null || !loc.isWorldLoaded()
+                    || !loc.getWorld().isChunkLoaded(loc.getBlockX() >> 4, loc.getBlockZ() >> 4)) {
+                iterator.remove();
+                continue;
+            }
+            for (int i = 0; i < PREFILL_PER_TICK && pool.size() < minSize; i++) {
+                pool.addLast(new PooledDisplay(spawn(loc, Component.empty()), now));
+            }
+            if (pool.size() >= minSize) {
+                iterator.remove();
+            }
+        }
+        if (prefillLocations.isEmpty()) {
+            cancelPrefill();
+        }
+    }
+
+    /**
+     * Stops the prefill task and forgets the pools waiting to be filled.
+     */
+    private void cancelPrefill() {
+        if (prefillTask != null) {
+            prefillTask.cancel();
+            prefillTask = null;
+        }
+        prefillLocations.clear();
+    }
+
+    /**
+     * Removes idle displays that outlived the idle timeout, keeping at least the
+     * minimum pool size in every world.
+     */
+    private void shrink() {
+        long cutoff = System.currentTimeMillis() - idleTimeout;
+        for (ArrayDeque<PooledDisplay> pool : idleDisplays.values()) {
+            Iterator<PooledDisplay> iterator = pool.iterator();
+            while (iterator.hasNext()) {
+                PooledDisplay pooled = iterator.next();
+                if (!pooled.display.isValid()) {
+                    iterator.remove();
+                } else if (pool.size() > minSize && pooled.releasedAt < cutoff) {
+                    pooled.display.remove();
+                    iterator.remove();
+                    discarded++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every idle display from every world pool.
+     */
+    private void clear() {
+        cancelPrefill();
+        for (ArrayDeque<PooledDisplay> pool : idleDisplays.values()) {
+            for (PooledDisplay pooled : pool) {
+                if (pooled.display.isValid()) {
+                    pooled.display.remove();
+                }
+            }
+        }
+        idleDisplays.clear();
+    }
+
+    /**
+     * Shows a display to each of the given viewers.
+     */
+    private void show(TextDisplay display, Player[] viewers) {
+        for (Player viewer : viewers) {
+            viewer.showEntity(plugin, display);
+        }
+    }
+
+    /**
+     * Checks if a player is one of the given viewers.
+     */
+    private static boolean contains(Player[] viewers, Player player) {
+        for (Player viewer : viewers) {
+            if (viewer == player) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Spawns a new, fully configured text display that nobody can see yet.
+     */
+    private TextDisplay spawn(Location loc, Component text) {
+        spawned++;
+        return loc.getWorld().spawn(loc, TextDisplay.class, display -> {
+            display.text(text);
+            display.setBillboard(Display.Billboard.CENTER);
+            display.setDefaultBackground(false);
+            display.setShadowed(true);
+            display.setVisibleByDefault(false);
+            display.setViewRange(viewRange);
+            sweeper.tag(display);
+        });
+    }
+
+    /**
+     * Clears the animation state a recycled display carried from its last use.
+     */
+    private void reset(TextDisplay display, Component text) {
+        display.text(text);
+        display.setViewRange(viewRange);
+        display.setTeleportDuration(0);
+        display.setInterpolationDelay(0);
+        display.setInterpolationDuration(0);
+        display.setTransformation(IDENTITY);
+    }
+
+    /**
+     * Gets the number of acquisitions served from the pool.
+     *
+     * @return the pool hit count
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of acquisitions that had to spawn a new display.
+     *
+     * @return the pool miss count
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the fraction of acquisitions served from the pool.
+     *
+     * @return the hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Gets the total number of displays spawned by the pool.
+     *
+     * @return the spawned display count
+     */
+    public long getSpawned() {
+        return spawned;
+    }
+
+    /**
+     * Gets the number of displays removed because the pool was full or idle.
+     *
+     * @return the discarded display count
+     */
+    public long getDiscarded() {
+        return discarded;
+    }
+
+    /**
+     * Gets the number of idle displays across all worlds.
+     *
+     * @return the idle display count
+     */
+    public int getIdleCount() {
+        int count = 0;
+        for (ArrayDeque<PooledDisplay> pool : idleDisplays.values()) {
+            count += pool.size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,62 @@
+package stawa.vitalstrike.indicators;
+
+/**
+ * Enum representing the easing curve of the damage indicator fades and
+ * floating motion.
+ *
+ * Curves are only evaluated while the animation tables of an
+ * {@link AnimationSettings} are baked, never while indicators are animated.
+ */
+public enum Easing {
+    LINEAR {
+        @Override
+        double apply(double progress) {
+            return progress;
+        }
+    },
+    EASE_OUT {
+        @Override
+        double apply(double progress) {
+            double remaining = 1.0 - progress;
+            return 1.0 - remaining * remaining * remaining;
+        }
+    },
+    BOUNCE {
+        @Override
+        double apply(double progress) {
+            if (progress < 1.0 / 2.75) {
+                return 7.5625 * progress * progress;
+            } else if (progress < 2.0 / 2.75) {
+                progress -= 1.5 / 2.75;
+                return 7.5625 * progress * progress + 0.75;
+            } else if (progress < 2.5 / 2.75) {
+                progress -= 2.25 / 2.75;
+                return 7.5625 * progress * progress + 0.9375;
+            }
+            progress -= 2.625 / 2.75;
+            return 7.5625 * progress * progress + 0.984375;
+        }
+    };
+
+    /**
+     * Maps linear progress onto the curve.
+     *
+     * @param progress the linear progress between 0 and 1
+     * @return the eased progress, 0 at the start and 1 at the end
+     */
+    abstract double apply(double progress);
+
+    /**
+     * Returns the easing from a string representation.
+     *
+     * @param easing the string representation of the easing
+     * @return the easing enum
+     */
+    public static Easing fromString(String easing) {
+        try {
+            return valueOf(easing.toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return LINEAR;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package stawa.vitalstrike.indicators;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import stawa.vitalstrike.logger.VitalLogger;
+
+/**
+ * Lowers and restores indicator fidelity based on the server tick time.
+ *
+ * The governor samples the average tick time once per second. When it stays
+ * above the step down threshold for the configured number of samples, the
+ * fidelity drops by one {@link FidelityTier}. When it stays below the step up
+ * threshold just as long, the fidelity rises by one tier again. The gap
+ * between both thresholds and the required streak keep the tier from
+ * flapping around a single value. Every change is logged.
+ */
+public class FidelityGovernor {
+    private static final long SAMPLE_INTERVAL_TICKS = 20L;
+
+    private final JavaPlugin plugin;
+    private final VitalLogger logger;
+    private BukkitTask sampleTask;
+
+    private boolean enabled = true;
+    private double stepDownMspt = 45.0;
+    private double stepUpMspt = 35.0;
+    private int samples = 3;
+    private FidelityTier lowestTier = FidelityTier.OFF;
+
+    private volatile FidelityTier tier = FidelityTier.FULL;
+    private volatile double mspt;
+    private int overBudget;
+    private int underBudget;
+
+    /**
+     * Creates a new FidelityGovernor.
+     *
+     * @param plugin the plugin that owns the sample task
+     * @param logger the logger tier changes are reported to
+     */
+    public FidelityGovernor(JavaPlugin plugin, VitalLogger logger) {
+        this.plugin = plugin;
+        this.logger = logger;
+    }
+
+    /**
+     * Starts the task that samples the tick time.
+     */
+    public void start() {
+        if (sampleTask != null) {
+            return;
+        }
+        sampleTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::sample,
+                SAMPLE_INTERVAL_TICKS, SAMPLE_INTERVAL_TICKS);
+    }
+
+    /**
+     * Stops the sample task.
+     */
+    public void shutdown() {
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+    }
+
+    /**
+     * Updates the governor thresholds and restores full fidelity.
+     *
+     * @param enabled      false to always run at full fidelity
+     * @param stepDownMspt the tick time in milliseconds above which fidelity
+     *                     is lowered
+     * @param stepUpMspt   the tick time in milliseconds below which fidelity
+     *                     is restored
+     * @param samples      the number of consecutive one second samples needed
+     *                     for a step
+     * @param lowestTier   the cheapest tier the governor may step down to
+     */
+    public void configure(boolean enabled, double stepDownMspt, double stepUpMspt, int samples,
+            FidelityTier lowestTier) {
+        this.enabled = enabled;
+        this.stepDownMspt = stepDownMspt;
+        this.stepUpMspt = Math.min(stepUpMspt, stepDownMspt);
+        this.samples = Math.max(1, samples);
+        this.lowestTier = lowestTier;
+        this.overBudget = 0;
+        this.underBudget = 0;
+        setTier(FidelityTier.FULL);
+    }
+
+    /**
+     * Gets the current fidelity tier.
+     *
+     * @return the current tier
+     */
+    public FidelityTier getTier() {
+        return tier;
+    }
+
+    /**
+     * Gets the average tick time seen by the last sample.
+     *
+     * @return the tick time in milliseconds
+     */
+    public double getMspt() {
+        return mspt;
+    }
+
+    /**
+     * Samples the server tick time.
+     */
+    private void sample() {
+        sample(plugin.getServer().getAverageTickTime());
+    }
+
+    /**
+     * Records a tick time sample and steps the tier once a streak is long
+     * enough.
+     *
+     * @param averageTickTime the average tick time in milliseconds
+     */
+    void sample(double averageTickTime) {
+        mspt = averageTickTime;
+        if (!enabled) {
+            return;
+        }
+
+        if (mspt > stepDownMspt) {
+            underBudget = 0;
+            if (++overBudget >= samples && tier.compareTo(lowestTier) < 0) {
+                overBudget = 0;
+                setTier(tier.lower());
+            }
+        } else if (mspt < stepUpMspt) {
+            overBudget = 0;
+            if (++underBudget >= samples && tier != FidelityTier.FULL) {
+                underBudget = 0;
+                setTier(tier.higher());
+            }
+        } else {
+            overBudget = 0;
+            underBudget = 0;
+        }
+    }
+
+    /**
+     * Switches to a tier, logging the change.
+     */
+    private void setTier(FidelityTier newTier) {
+        FidelityTier oldTier = tier;
+        if (oldTier == newTier) {
+            return;
+        }
+        tier = newTier;
+        if (newTier.compareTo(oldTier) > 0) {
+            logger.warning("Indicator fidelity lowered to %s (MSPT %.1f)", newTier, mspt);
+        } else {
+            logger.info("Indicator fidelity restored to %s (MSPT %.1f)", newTier, mspt);
+        }
+    }
+}
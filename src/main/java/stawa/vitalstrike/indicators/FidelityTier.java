@@ -0,0 +1,71 @@
+package stawa.vitalstrike.indicators;
+
+/**
+ * Enum representing how much indicator work the server can currently afford,
+ * ordered from the richest to the cheapest tier.
+ */
+public enum FidelityTier {
+    /** Indicators animate as configured. */
+    FULL,
+    /** Indicators are animated through client interpolated keyframes only. */
+    KEYFRAME,
+    /** Indicators are static, short lived numbers. */
+    STATIC,
+    /** Only the attacking player sees a static indicator. */
+    ATTACKER_ONLY,
+    /** No indicators are shown. */
+    OFF;
+
+    private static final FidelityTier[] TIERS = values();
+
+    /**
+     * Gets the next cheaper tier.
+     *
+     * @return the cheaper tier, or this tier if it is already the cheapest
+     */
+    public FidelityTier lower() {
+        return this == OFF ? OFF : TIERS[ordinal() + 1];
+    }
+
+    /**
+     * Gets the next richer tier.
+     *
+     * @return the richer tier, or this tier if it is already the richest
+     */
+    public FidelityTier higher() {
+        return this == FULL ? FULL : TIERS[ordinal() - 1];
+    }
+
+    /**
+     * Checks if cosmetic particles may be spawned in this tier.
+     *
+     * @return true if particles are allowed
+     */
+    public boolean allowsParticles() {
+        return this == FULL;
+    }
+
+    /**
+     * Checks if cosmetic sounds may be played in this tier.
+     *
+     * @return true if sounds are allowed
+     */
+    public boolean allowsSounds() {
+        return compareTo(KEYFRAME) <= 0;
+    }
+
+    /**
+     * Gets the tier with the given name, ignoring case.
+     *
+     * @param name the tier name
+     * @return the matching tier, or null if the name is unknown
+     */
+    public static FidelityTier fromString(String name) {
+        for (FidelityTier tier : TIERS) {
+            if (tier.name().equalsIgnoreCase(name.replace('-', '_'))) {
+                return tier;
+            }
+        }
+        return null;
+    }
+}
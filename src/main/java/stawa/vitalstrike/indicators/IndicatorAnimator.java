@@ -0,0 +1,414 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.Transformation;
+import org.joml.AxisAngle4f;
+import org.joml.Vector3f;
+
+/**
+ * Drives the animation of every live damage indicator from a single repeating
+ * task.
+ *
+ * Indicator state is kept in flat parallel arrays indexed by slot. Each server
+ * tick the animator advances all slots in one pass and removes the displays
+ * whose lifetime has ended in that same pass, so the scheduler load stays
+ * constant no matter how many indicators are alive.
+ *
+ * Keyframed indicators are only touched on a handful of ticks. Their motion
+ * and fades are handed to the client through the display teleport and
+ * interpolation durations, so each one costs a few updates instead of one per
+ * tick.
+ *
+ * Mounted indicators ride the damaged entity. Their offset and motion live
+ * entirely in the display translation, interpolated by the client between
+ * keyframes, so they follow a moving target without a single teleport.
+ *
+ * Animating a display that is still live restarts its animation in the slot
+ * it already has, which lets callers recycle a live display in place.
+ *
+ * Positions and scales are looked up in the tables baked into the
+ * {@link AnimationSettings}, and every update goes through one reused
+ * location and transformation, so a tick allocates nothing per indicator.
+ */
+public class IndicatorAnimator {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final JavaPlugin plugin;
+    private final DisplayPool displayPool;
+    private BukkitTask task;
+
+    private TextDisplay[] displays = new TextDisplay[INITIAL_CAPACITY];
+    private Player[][] viewers = new Player[INITIAL_CAPACITY][];
+    private AnimationSettings[] settings = new AnimationSettings[INITIAL_CAPACITY];
+    private IndicatorPriority[] priorities = new IndicatorPriority[INITIAL_CAPACITY];
+    private long[] generations = new long[INITIAL_CAPACITY];
+    private int[] ages = new int[INITIAL_CAPACITY];
+    private double[] baseWaveX = new double[INITIAL_CAPACITY];
+    private double[] baseWaveZ = new double[INITIAL_CAPACITY];
+    private double[] originX = new double[INITIAL_CAPACITY];
+    private double[] originY = new double[INITIAL_CAPACITY];
+    private double[] originZ = new double[INITIAL_CAPACITY];
+    private float[] translationX = new float[INITIAL_CAPACITY];
+    private float[] translationY = new float[INITIAL_CAPACITY];
+    private float[] translationZ = new float[INITIAL_CAPACITY];
+    private final Map<TextDisplay, Integer> slots = new IdentityHashMap<>();
+    private int size;
+    private long nextGeneration;
+
+    // The server copies a transformation when it is applied, so one set of
+    // buffers serves every display.
+    private final Vector3f translationBuffer = new Vector3f();
+    private final Vector3f scaleBuffer = new Vector3f();
+    private final Transformation transformation = new Transformation(translationBuffer, new AxisAngle4f(),
+            scaleBuffer, new AxisAngle4f());
+    private final Location positionBuffer = new Location(null, 0, 0, 0);
+
+    /**
+     * Creates a new IndicatorAnimator.
+     *
+     * @param plugin      the plugin that owns the animation task
+     * @param displayPool the pool expired displays are returned to
+     */
+    public IndicatorAnimator(JavaPlugin plugin, DisplayPool displayPool) {
+        this.plugin = plugin;
+        this.displayPool = displayPool;
+    }
+
+    /**
+     * Starts the shared animation task if it is not already running.
+     */
+    public void start() {
+        if (task != null) {
+            return;
+        }
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Stops the animation task and removes every live indicator.
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (int i = 0; i < size; i++) {
+            if (displays[i] != null && displays[i].isValid()) {
+                displays[i].remove();
+            }
+        }
+        Arrays.fill(displays, 0, size, null);
+        Arrays.fill(viewers, 0, size, null);
+        Arrays.fill(settings, 0, size, null);
+        Arrays.fill(priorities, 0, size, null);
+        slots.clear();
+        size = 0;
+    }
+
+    /**
+     * Registers a display to be animated until its lifetime ends. A display
+     * that is already being animated starts over.
+     *
+     * @param display  the text display to animate
+     * @param viewers  the players the display is shown to
+     * @param offsetX  the X translation a mounted display starts with
+     * @param offsetY  the Y translation a mounted display starts with
+     * @param offsetZ  the Z translation a mounted display starts with
+     * @param randomX  the random horizontal X offset the display was spawned with
+     * @param randomZ  the random horizontal Z offset the display was spawned with
+     * @param settings the animation settings for this display
+     * @param priority the priority of the display under the indicator budget
+     */
+    public void animate(TextDisplay display, Player[] viewers, double offsetX, double offsetY, double offsetZ,
+            double randomX, double randomZ, AnimationSettings settings, IndicatorPriority priority) {
+        Integer liveSlot = slots.get(display);
+        int slot;
+        if (liveSlot != null) {
+            slot = liveSlot;
+        } else {
+            if (size == displays.length) {
+                grow();
+            }
+            slot = size++;
+            slots.put(display, slot);
+        }
+        displays[slot] = display;
+        this.viewers[slot] = viewers;
+        this.settings[slot] = settings;
+        priorities[slot] = priority;
+        generations[slot] = ++nextGeneration;
+        ages[slot] = 0;
+        baseWaveX[slot] = randomX * settings.floatCurve;
+        baseWaveZ[slot] = randomZ * settings.floatCurve;
+        if (!settings.mounted) {
+            Location origin = display.getLocation();
+            originX[slot] = origin.getX();
+            originY[slot] = origin.getY();
+            originZ[slot] = origin.getZ();
+        }
+
+        if (settings.mounted) {
+            translationX[slot] = (float) offsetX;
+            translationY[slot] = (float) offsetY;
+            translationZ[slot] = (float) offsetZ;
+            updateDisplayTransformation(display, translationX[slot], translationY[slot], translationZ[slot],
+                    settings.fadeInTicks > 0 ? 0.0f : 1.0f);
+        } else if (settings.keyframed && !settings.still) {
+            display.setTeleportDuration(settings.segmentTicks);
+            if (settings.fadeInTicks > 0) {
+                updateDisplayTransformation(display, 0.0f);
+            }
+        }
+    }
+
+    /**
+     * Gets the viewers of a display that is currently being animated.
+     *
+     * @param display the display to look up
+     * @return the players the display is shown to, or null if it is not being
+     *         animated
+     */
+    public Player[] getViewers(TextDisplay display) {
+        Integer slot = slots.get(display);
+        return slot != null ? viewers[slot] : null;
+    }
+
+    /**
+     * Gets the generation of the animation a display is running. Every call
+     * to {@link #animate} starts a new generation, so a generation tells one
+     * use of a recycled display from the next.
+     *
+     * @param display the display to look up
+     * @return the generation, or -1 if the display is not being animated
+     */
+    public long getGeneration(TextDisplay display) {
+        Integer slot = slots.get(display);
+        return slot != null ? generations[slot] : -1L;
+    }
+
+    /**
+     * Checks if a display is still running the given animation generation.
+     *
+     * @param display    the display to check
+     * @param generation the generation it was started with
+     * @return true if the display is live and has not been animated again
+     */
+    public boolean isAnimating(TextDisplay display, long generation) {
+        Integer slot = slots.get(display);
+        return slot != null && generations[slot] == generation;
+    }
+
+    /**
+     * Cuts the oldest indicator of the lowest priority short, considering only
+     * indicators that do not outrank the given priority. The display is
+     * removed instead of pooled.
+     *
+     * @param maxPriority the highest priority that may be cut short
+     * @return true if an indicator was removed
+     */
+    public boolean evictOldest(IndicatorPriority maxPriority) {
+        int victim = -1;
+        for (int i = 0; i < size; i++) {
+            if (priorities[i].compareTo(maxPriority) > 0) {
+                continue;
+            }
+            if (victim < 0 || priorities[i].compareTo(priorities[victim]) < 0
+                    || (priorities[i] == priorities[victim] && ages[i] > ages[victim])) {
+                victim = i;
+            }
+        }
+        if (victim < 0) {
+            return false;
+        }
+        if (displays[victim].isValid()) {
+            displays[victim].remove();
+        }
+        release(victim);
+        return true;
+    }
+
+    /**
+     * Gets the number of indicators currently being animated.
+     *
+     * @return the live indicator count
+     */
+    public int getLiveCount() {
+        return size;
+    }
+
+    /**
+     * Advances every live indicator by one tick and removes expired ones.
+     */
+    private void tick() {
+        int i = 0;
+        while (i < size) {
+            TextDisplay display = displays[i];
+            AnimationSettings slotSettings = settings[i];
+            int age = ages[i];
+
+            if (!display.isValid()) {
+                release(i);
+                continue;
+            }
+
+            if (age >= slotSettings.totalTicks) {
+                displayPool.release(display, viewers[i]);
+                release(i);
+                continue;
+            }
+
+            if (slotSettings.still) {
+                // Static indicators keep their spawn state until released.
+            } else if (slotSettings.mounted) {
+                updateMountedKeyframe(display, i, age, slotSettings);
+            } else if (slotSettings.keyframed) {
+                updateKeyframes(display, i, age, slotSettings);
+            } else {
+                moveDisplay(display, i, age + 1, slotSettings);
+                updateDisplayTransformation(display, slotSettings.scaleAt(age));
+            }
+            ages[i] = age + 1;
+            i++;
+        }
+    }
+
+    /**
+     * Frees a slot by moving the last live slot into it.
+     *
+     * @param slot the slot to free
+     */
+    private void release(int slot) {
+        int last = --size;
+        slots.remove(displays[slot]);
+        if (slot != last) {
+            slots.put(displays[last], slot);
+            displays[slot] = displays[last];
+            viewers[slot] = viewers[last];
+            settings[slot] = settings[last];
+            priorities[slot] = priorities[last];
+            generations[slot] = generations[last];
+            ages[slot] = ages[last];
+            baseWaveX[slot] = baseWaveX[last];
+            baseWaveZ[slot] = baseWaveZ[last];
+            originX[slot] = originX[last];
+            originY[slot] = originY[last];
+            originZ[slot] = originZ[last];
+            translationX[slot] = translationX[last];
+            translationY[slot] = translationY[last];
+            translationZ[slot] = translationZ[last];
+        }
+        displays[last] = null;
+        viewers[last] = null;
+        settings[last] = null;
+        priorities[last] = null;
+    }
+
+    /**
+     * Doubles the capacity of the slot arrays.
+     */
+    private void grow() {
+        int capacity = displays.length * 2;
+        displays = Arrays.copyOf(displays, capacity);
+        viewers = Arrays.copyOf(viewers, capacity);
+        settings = Arrays.copyOf(settings, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        baseWaveX = Arrays.copyOf(baseWaveX, capacity);
+        baseWaveZ = Arrays.copyOf(baseWaveZ, capacity);
+        originX = Arrays.copyOf(originX, capacity);
+        originY = Arrays.copyOf(originY, capacity);
+        originZ = Arrays.copyOf(originZ, capacity);
+        translationX = Arrays.copyOf(translationX, capacity);
+        translationY = Arrays.copyOf(translationY, capacity);
+        translationZ = Arrays.copyOf(translationZ, capacity);
+    }
+
+    /**
+     * Teleports a display to where its motion has taken it after the given
+     * number of ticks.
+     */
+    private void moveDisplay(TextDisplay textDisplay, int slot, int ticks, AnimationSettings settings) {
+        Direction direction = settings.direction;
+        double rise = settings.rise[ticks];
+        positionBuffer.setWorld(textDisplay.getWorld());
+        positionBuffer.set(
+                originX[slot] + direction.getX() * rise + baseWaveX[slot] * settings.waveX[ticks],
+                originY[slot] + direction.getY() * rise,
+                originZ[slot] + direction.getZ() * rise + baseWaveZ[slot] * settings.waveZ[ticks]);
+        textDisplay.teleport(positionBuffer);
+    }
+
+    /**
+     * Applies the keyframes that start on the given tick.
+     * The fade in and fade out are interpolated by the client, and the motion
+     * is split into teleport segments no longer than the client allows.
+     */
+    private void updateKeyframes(TextDisplay textDisplay, int slot, int currentTick, AnimationSettings settings) {
+        if (currentTick == 0 && settings.fadeInTicks > 0) {
+            interpolateScale(textDisplay, settings.fadeInTicks, 1.0f);
+        }
+        if (currentTick == settings.startFadeOutAt && settings.fadeOutTicks > 0) {
+            interpolateScale(textDisplay, settings.fadeOutTicks, 0.0f);
+        }
+        if (currentTick % settings.segmentTicks == 0) {
+            moveDisplay(textDisplay, slot, currentTick + settings.segmentTicks, settings);
+        }
+    }
+
+    /**
+     * Applies the keyframe of a mounted display that starts on the given tick.
+     * The translation and scale the display reaches at the next keyframe are
+     * sent at once and the client interpolates towards them.
+     */
+    private void updateMountedKeyframe(TextDisplay textDisplay, int slot, int currentTick,
+            AnimationSettings settings) {
+        int nextTick = settings.nextKeyframe[currentTick];
+        if (nextTick == 0) {
+            return;
+        }
+
+        Direction direction = settings.direction;
+        double rise = settings.rise[nextTick];
+        textDisplay.setInterpolationDelay(0);
+        textDisplay.setInterpolationDuration(nextTick - currentTick);
+        updateDisplayTransformation(textDisplay,
+                (float) (translationX[slot] + direction.getX() * rise + baseWaveX[slot] * settings.waveX[nextTick]),
+                (float) (translationY[slot] + direction.getY() * rise),
+                (float) (translationZ[slot] + direction.getZ() * rise + baseWaveZ[slot] * settings.waveZ[nextTick]),
+                settings.scaleAt(nextTick));
+    }
+
+    /**
+     * Starts a client-side interpolation of the display scale.
+     */
+    private void interpolateScale(TextDisplay textDisplay, int durationTicks, float scale) {
+        textDisplay.setInterpolationDelay(0);
+        textDisplay.setInterpolationDuration(durationTicks);
+        updateDisplayTransformation(textDisplay, scale);
+    }
+
+    /**
+     * Updates the transformation of a display.
+     */
+    private void updateDisplayTransformation(TextDisplay textDisplay, float scale) {
+        updateDisplayTransformation(textDisplay, 0.0f, 0.0f, 0.0f, scale);
+    }
+
+    /**
+     * Updates the translation and scale of a display.
+     */
+    private void updateDisplayTransformation(TextDisplay textDisplay, float x, float y, float z, float scale) {
+        translationBuffer.set(x, y, z);
+        scaleBuffer.set(scale);
+        textDisplay.setTransformation(transformation);
+    }
+}
@@ -0,0 +1,134 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Caps the number of live plugin displays across the whole server.
+ *
+ * Every new damage indicator or combo hologram reserves a place first. While
+ * the budget is full, the oldest indicator of the lowest priority that does
+ * not outrank the new one is cut short and removed to make room. If every
+ * live indicator outranks the new one, the new one is not shown. Displays
+ * that accompany one already placed for the same hit only take free places,
+ * so a hit never evicts its own indicator.
+ *
+ * Cut short displays are removed rather than pooled, so a burst or lane that
+ * still refers to one sees it as gone instead of re-texting a display that
+ * was handed out again.
+ */
+public class IndicatorBudget {
+    private final IndicatorAnimator animator;
+    private final IntSupplier otherLive;
+
+    private boolean enabled = true;
+    private int maxLive = 1000;
+
+    private long evicted;
+    private long refused;
+
+    /**
+     * Creates a new IndicatorBudget.
+     *
+     * @param animator  the animator that holds the live damage indicators
+     * @param otherLive counts the live displays the animator does not manage,
+     *                  such as combo holograms
+     */
+    public IndicatorBudget(IndicatorAnimator animator, IntSupplier otherLive) {
+        this.animator = animator;
+        this.otherLive = otherLive;
+    }
+
+    /**
+     * Updates the budget settings.
+     *
+     * @param enabled false to allow any number of live displays
+     * @param maxLive the maximum number of live displays
+     */
+    public void configure(boolean enabled, int maxLive) {
+        this.enabled = enabled;
+        this.maxLive = Math.max(1, maxLive);
+    }
+
+    /**
+     * Makes room for a new display, cutting short lower or equal priority
+     * indicators while the budget is full.
+     *
+     * @param priority the priority of the new display
+     * @return true if the display may be shown, false if the budget is taken
+     *         by higher priority indicators
+     */
+    public boolean reserve(IndicatorPriority priority) {
+        if (!enabled) {
+            return true;
+        }
+        while (getOccupancy() >= maxLive) {
+            if (!animator.evictOldest(priority)) {
+                refused++;
+                return false;
+            }
+            evicted++;
+        }
+        return true;
+    }
+
+    /**
+     * Takes a free place for a new display without cutting any indicator
+     * short.
+     *
+     * @return true if the display may be shown, false if the budget is full
+     */
+    public boolean reserveFree() {
+        if (!enabled || getOccupancy() < maxLive) {
+            return true;
+        }
+        refused++;
+        return false;
+    }
+
+    /**
+     * Gets the number of live displays counted against the budget.
+     *
+     * @return the occupancy
+     */
+    public int getOccupancy() {
+        return animator.getLiveCount() + otherLive.getAsInt();
+    }
+
+    /**
+     * Gets the maximum number of live displays.
+     *
+     * @return the budget size
+     */
+    public int getMaxLive() {
+        return maxLive;
+    }
+
+    /**
+     * Checks if the budget is enforced.
+     *
+     * @return true if the budget is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the number of indicators cut short to make room.
+     *
+     * @return the eviction count
+     */
+    public long getEvicted() {
+        return evicted;
+    }
+
+    /**
+     * Gets the number of displays not shown because the budget was taken by
+     * higher priority indicators, or was full for a display that may not
+     * evict.
+     *
+     * @return the refusal count
+     */
+    public long getRefused() {
+        return refused;
+    }
+}
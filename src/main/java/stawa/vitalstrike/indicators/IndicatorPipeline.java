@@ -0,0 +1,143 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import stawa.vitalstrike.logger.VitalLogger;
+
+/**
+ * Moves damage indicator work out of the damage event.
+ *
+ * Indicators pass through three stages:
+ * <ol>
+ * <li>The damage listener captures each hit with its final damage and
+ * appends it to the tick's batch.</li>
+ * <li>At the end of the tick the batch is handed to an async worker, which
+ * renders the text of the compiled formats.</li>
+ * <li>At the end of a following tick every prepared batch is committed on
+ * the main thread, where displays are spawned or updated.</li>
+ * </ol>
+ *
+ * Batches are committed whole and in the order they were captured, so
+ * everything captured in one tick is committed together and followed by a
+ * single batch end callback. A batch whose worker finished early waits for
+ * the batches captured before it.
+ *
+ * Indicators therefore show up one tick after the hit, and never for damage
+ * that a later listener cancelled.
+ */
+public class IndicatorPipeline implements Listener {
+    private final JavaPlugin plugin;
+    private final VitalLogger logger;
+    private final ComponentCache componentCache;
+    private final Consumer<PendingIndicator> committer;
+    private final Runnable batchEnd;
+    private final Map<Long, List<PendingIndicator>> prepared = new ConcurrentHashMap<>();
+    private List<PendingIndicator> captured = new ArrayList<>();
+    private long nextSequence;
+    private long nextCommit;
+    private boolean started;
+
+    /**
+     * Creates a new IndicatorPipeline.
+     *
+     * @param plugin          the plugin that owns the worker tasks
+     * @param logger          the logger render failures are reported to
+     * @param componentCache  the cache the text is rendered through
+     * @param committer       shows a prepared indicator, called on the main
+     *                        thread
+     * @param batchEnd        called on the main thread after each committed
+     *                        batch
+     */
+    public IndicatorPipeline(JavaPlugin plugin, VitalLogger logger, ComponentCache componentCache,
+            Consumer<PendingIndicator> committer, Runnable batchEnd) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.componentCache = componentCache;
+        this.committer = committer;
+        this.batchEnd = batchEnd;
+    }
+
+    /**
+     * Registers the end of tick listener.
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Drops every indicator that was not committed yet.
+     */
+    public void shutdown() {
+        captured = new ArrayList<>();
+        prepared.clear();
+        nextCommit = nextSequence;
+    }
+
+    /**
+     * Adds a hit to the current tick's batch. Must be called on the main
+     * thread.
+     *
+     * @param indicator the captured hit
+     */
+    public void capture(PendingIndicator indicator) {
+        captured.add(indicator);
+    }
+
+    /**
+     * Commits the batches prepared so far, in capture order, and hands this
+     * tick's batch to a worker.
+     *
+     * @param event the server tick end event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        List<PendingIndicator> preparedBatch;
+        while ((preparedBatch = prepared.remove(nextCommit)) != null) {
+            nextCommit++;
+            for (PendingIndicator indicator : preparedBatch) {
+                committer.accept(indicator);
+            }
+            batchEnd.run();
+        }
+
+        if (captured.isEmpty()) {
+            return;
+        }
+        List<PendingIndicator> batch = captured;
+        long sequence = nextSequence++;
+        captured = new ArrayList<>();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> prepare(sequence, batch));
+    }
+
+    /**
+     * Prepares a batch off the main thread and queues it under its sequence
+     * number for the commit.
+     */
+    private void prepare(long sequence, List<PendingIndicator> batch) {
+        List<PendingIndicator> preparedBatch = new ArrayList<>(batch.size());
+        for (PendingIndicator indicator : batch) {
+            try {
+                indicator.prepare(componentCache);
+                preparedBatch.add(indicator);
+            } catch (RuntimeException e) {
+                logger.warning("Failed to render damage indicator: {}", e.getMessage());
+            }
+        }
+        prepared.put(sequence, preparedBatch);
+    }
+}
@@ -0,0 +1,16 @@
+package stawa.vitalstrike.indicators;
+
+/**
+ * Enum representing how important a live indicator is when the global
+ * indicator budget is full. Later constants outrank earlier ones.
+ */
+public enum IndicatorPriority {
+    /**
+     * Environmental and mob on mob damage.
+     */
+    ENVIRONMENT,
+    /**
+     * Damage dealt by a player and combo holograms.
+     */
+    PLAYER
+}
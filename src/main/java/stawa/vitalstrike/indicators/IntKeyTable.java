@@ -0,0 +1,226 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * An open addressing hash table of int keys, such as entity ids.
+ *
+ * The table only manages the keys and hands out slots. The values live in
+ * parallel arrays of the owner, indexed by slot, and are kept in step through
+ * the {@link Values} callbacks when slots move or the table grows. Lookups use
+ * linear probing, and deletes shift the later entries of the probe chain back
+ * instead of leaving tombstones, so a table that sees constant churn never
+ * slows down.
+ */
+final class IntKeyTable {
+    /**
+     * The key of a free slot. It can never be stored.
+     */
+    static final int EMPTY = Integer.MIN_VALUE;
+
+    /**
+     * Keeps the value arrays of the owner in step with the slots of a table.
+     */
+    interface Values {
+        /**
+         * Replaces the value arrays with empty ones of the given capacity.
+         *
+         * @param capacity  the new slot count
+         * @param relocated the new slot of every old slot, -1 for old slots
+         *                  that were free, or null if no value is kept
+         */
+        void resize(int capacity, int[] relocated);
+
+        /**
+         * Moves the values of one slot to another.
+         *
+         * @param from the slot to move from
+         * @param to   the slot to move to
+         */
+        void move(int from, int to);
+
+        /**
+         * Releases the values of a slot that was freed.
+         *
+         * @param slot the freed slot
+         */
+        void clear(int slot);
+    }
+
+    private final Values values;
+    private int[] keys;
+    private int size;
+    private int mask;
+
+    /**
+     * Creates a new IntKeyTable.
+     *
+     * @param capacity the initial power of two slot count
+     * @param values   the value arrays kept in step with the slots
+     */
+    IntKeyTable(int capacity, Values values) {
+        this.values = values;
+        allocate(capacity);
+        values.resize(capacity, null);
+    }
+
+    /**
+     * Gets the slot of a key.
+     *
+     * @param key the key
+     * @return the slot, or -1 if the key is not stored
+     */
+    int find(int key) {
+        int slot = hash(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Stores a key that is not in the table yet, growing the table first if
+     * it is three quarters full.
+     *
+     * @param key the key
+     * @return the slot of the key, with the values left as they were
+     */
+    int insert(int key) {
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        int slot = emptySlot(key);
+        keys[slot] = key;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Deletes a slot, shifting later entries of its probe chain back so that
+     * lookups never stop at the freed slot.
+     *
+     * @param slot the slot to delete
+     */
+    void delete(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values.move(next, hole);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        values.clear(hole);
+        size--;
+    }
+
+    /**
+     * Deletes every slot matching a test.
+     *
+     * @param test the test of a stored slot
+     */
+    void removeIf(IntPredicate test) {
+        int slot = 0;
+        while (slot < keys.length && size > 0) {
+            if (keys[slot] != EMPTY && test.test(slot)) {
+                // The backward shift may move another entry into this slot, so
+                // the same slot is checked again before moving on.
+                delete(slot);
+            } else {
+                slot++;
+            }
+        }
+    }
+
+    /**
+     * Deletes every key and replaces the value arrays with empty ones.
+     */
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        values.resize(keys.length, null);
+    }
+
+    /**
+     * Gets the key stored in a slot.
+     *
+     * @param slot the slot
+     * @return the key, or {@link #EMPTY} for a free slot
+     */
+    int keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Gets the number of stored keys.
+     *
+     * @return the key count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of slots.
+     *
+     * @return the slot count
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Gets the first free slot along the probe sequence of a key.
+     */
+    private int emptySlot(int key) {
+        int slot = hash(key);
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Rehashes every key into a table of the given capacity.
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] relocated = new int[oldKeys.length];
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = emptySlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                relocated[i] = slot;
+            } else {
+                relocated[i] = -1;
+            }
+        }
+        values.resize(capacity, relocated);
+    }
+
+    /**
+     * Replaces the keys with empty ones of the given power of two capacity.
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Spreads a key over the table.
+     */
+    private int hash(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,285 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.Arrays;
+
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Hands out a small, fixed set of vertical lanes per target.
+ *
+ * Every new indicator on a target takes the target's oldest lane. If the
+ * display last placed in that lane is still being animated for it, it is
+ * re-texted and re-animated in place instead of spawning another one, so a
+ * target never has more live indicators than it has lanes, and the numbers
+ * of rapid hits stay apart instead of piling up at random offsets.
+ *
+ * A lane remembers the animation generation its display was started with,
+ * and the {@link IndicatorAnimator} confirms that generation is still
+ * running, so a display that ended and was handed out again is never taken
+ * over. Lanes are stored in an {@link IntKeyTable} keyed by the target's
+ * entity id, like the bursts of the {@link BurstTracker}, with the lanes of
+ * each target in consecutive slots of flat arrays.
+ */
+public class LaneAllocator implements Listener {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long SWEEP_INTERVAL_TICKS = 20L;
+
+    private final JavaPlugin plugin;
+    private final IndicatorAnimator animator;
+    private BukkitTask sweepTask;
+
+    private boolean enabled = true;
+    private int laneCount = 3;
+    private double spacing = 0.3;
+
+    private final IntKeyTable table;
+    private int[] nextLanes;
+    private TextDisplay[] displays;
+    private long[] generations;
+
+    /**
+     * Creates a new LaneAllocator.
+     *
+     * @param plugin   the plugin that owns the sweep task
+     * @param animator the animator that confirms lane displays are still live
+     */
+    public LaneAllocator(JavaPlugin plugin, IndicatorAnimator animator) {
+        this.plugin = plugin;
+        this.animator = animator;
+        this.table = new IntKeyTable(INITIAL_CAPACITY, new Lanes());
+    }
+
+    /**
+     * Registers the death and removal listener and starts the sweep task.
+     */
+    public void start() {
+        if (sweepTask != null) {
+            return;
+        }
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        sweepTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::sweep,
+                SWEEP_INTERVAL_TICKS, SWEEP_INTERVAL_TICKS);
+    }
+
+    /**
+     * Stops the sweep task and forgets every lane.
+     */
+    public void shutdown() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+        table.clear();
+    }
+
+    /**
+     * Updates the lane settings and forgets every lane.
+     *
+     * @param enabled   false to give every indicator its own display
+     * @param laneCount the number of lanes per target
+     * @param spacing   the vertical distance between two lanes in blocks
+     */
+    public void configure(boolean enabled, int laneCount, double spacing) {
+        this.enabled = enabled;
+        this.spacing = spacing;
+        // Clearing the table reallocates the lane arrays for the new count.
+        this.laneCount = Math.max(1, laneCount);
+        table.clear();
+    }
+
+    /**
+     * Checks if indicators are placed in lanes.
+     *
+     * @return true if lanes are enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes the oldest lane of a target.
+     *
+     * @param target the entity id of the target
+     * @return the lane index
+     */
+    public int claim(int target) {
+        int slot = table.find(target);
+        if (slot < 0) {
+            slot = table.insert(target);
+            nextLanes[slot] = 0;
+        }
+        int lane = nextLanes[slot];
+        nextLanes[slot] = (lane + 1) % laneCount;
+        return lane;
+    }
+
+    /**
+     * Gets the display last placed in a lane if it is still being animated
+     * for the target.
+     *
+     * @param target the entity id of the target
+     * @param lane   the lane index
+     * @return the live display of the lane, or null if it has none
+     */
+    public TextDisplay getLiveDisplay(int target, int lane) {
+        int slot = table.find(target);
+        if (slot < 0) {
+            return null;
+        }
+        int index = slot * laneCount + lane;
+        TextDisplay display = displays[index];
+        if (display == null || !display.isValid() || !animator.isAnimating(display, generations[index])) {
+            return null;
+        }
+        return display;
+    }
+
+    /**
+     * Places a display in a lane.
+     *
+     * @param target  the entity id of the target
+     * @param lane    the lane index
+     * @param display the display now shown in the lane
+     */
+    public void assign(int target, int lane, TextDisplay display) {
+        int slot = table.find(target);
+        long generation = animator.getGeneration(display);
+        if (slot >= 0 && generation >= 0) {
+            int index = slot * laneCount + lane;
+            displays[index] = display;
+            generations[index] = generation;
+        }
+    }
+
+    /**
+     * Gets the vertical offset of a lane.
+     *
+     * @param lane the lane index
+     * @return the offset in blocks
+     */
+    public double getOffset(int lane) {
+        return lane * spacing;
+    }
+
+    /**
+     * Forgets the lanes of a target.
+     *
+     * @param target the entity id of the target
+     */
+    public void remove(int target) {
+        if (table.size() == 0) {
+            return;
+        }
+        int slot = table.find(target);
+        if (slot >= 0) {
+            table.delete(slot);
+        }
+    }
+
+    /**
+     * Gets the number of targets with lanes.
+     *
+     * @return the target count
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Drops the lanes of an entity that died.
+     *
+     * @param event the entity death event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityDeath(EntityDeathEvent event) {
+        remove(event.getEntity().getEntityId());
+    }
+
+    /**
+     * Drops the lanes of an entity that left its world.
+     *
+     * @param event the entity remove from world event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemoveFromWorld(EntityRemoveFromWorldEvent event) {
+        remove(event.getEntity().getEntityId());
+    }
+
+    /**
+     * Forgets targets none of whose lanes still holds a live display.
+     */
+    private void sweep() {
+        table.removeIf(slot -> !hasLiveLane(slot));
+    }
+
+    /**
+     * Checks if any lane of a slot still holds a live display.
+     */
+    private boolean hasLiveLane(int slot) {
+        int base = slot * laneCount;
+        for (int lane = 0; lane < laneCount; lane++) {
+            TextDisplay display = displays[base + lane];
+            if (display != null && animator.isAnimating(display, generations[base + lane])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keeps the lane arrays in step with the slots of the table.
+     */
+    private final class Lanes implements IntKeyTable.Values {
+        /**
+         * Replaces the lane arrays with ones of the given capacity for the
+         * current lane count.
+         */
+        @Override
+        public void resize(int capacity, int[] relocated) {
+            int[] oldNextLanes = nextLanes;
+            TextDisplay[] oldDisplays = displays;
+            long[] oldGenerations = generations;
+
+            nextLanes = new int[capacity];
+            displays = new TextDisplay[capacity * laneCount];
+            generations = new long[capacity * laneCount];
+            if (relocated == null) {
+                return;
+            }
+            for (int i = 0; i < relocated.length; i++) {
+                int slot = relocated[i];
+                if (slot >= 0) {
+                    nextLanes[slot] = oldNextLanes[i];
+                    System.arraycopy(oldDisplays, i * laneCount, displays, slot * laneCount, laneCount);
+                    System.arraycopy(oldGenerations, i * laneCount, generations, slot * laneCount, laneCount);
+                }
+            }
+        }
+
+        /**
+         * Moves the lanes of a target from one slot to another.
+         */
+        @Override
+        public void move(int from, int to) {
+            nextLanes[to] = nextLanes[from];
+            System.arraycopy(displays, from * laneCount, displays, to * laneCount, laneCount);
+            System.arraycopy(generations, from * laneCount, generations, to * laneCount, laneCount);
+        }
+
+        /**
+         * Releases the displays of a freed slot.
+         */
+        @Override
+        public void clear(int slot) {
+            Arrays.fill(displays, slot * laneCount, (slot + 1) * laneCount, null);
+        }
+    }
+}
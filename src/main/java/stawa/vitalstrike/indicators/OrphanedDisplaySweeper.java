@@ -0,0 +1,121 @@
+package stawa.vitalstrike.indicators;
+
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import stawa.vitalstrike.logger.VitalLogger;
+
+/**
+ * Tags every text display the plugin creates and removes tagged displays
+ * that were left behind in the world.
+ *
+ * Tagged displays are never persistent, so a tagged display loaded from a
+ * region file can only be a leftover of a crash or of an older version that
+ * saved its indicators with the chunk. Such displays are removed when their
+ * chunk loads, and once for every loaded chunk at startup.
+ */
+public class OrphanedDisplaySweeper implements Listener {
+    private final JavaPlugin plugin;
+    private final VitalLogger logger;
+    private final NamespacedKey displayKey;
+    private boolean started;
+    private long removed;
+
+    /**
+     * Creates a new OrphanedDisplaySweeper.
+     *
+     * @param plugin the plugin that owns the tag key
+     * @param logger the logger removed displays are reported to
+     */
+    public OrphanedDisplaySweeper(JavaPlugin plugin, VitalLogger logger) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.displayKey = new NamespacedKey(plugin, "indicator_display");
+    }
+
+    /**
+     * Removes the leftovers in every loaded chunk and registers the entity
+     * load listener.
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        int count = 0;
+        for (World world : plugin.getServer().getWorlds()) {
+            for (TextDisplay display : world.getEntitiesByClass(TextDisplay.class)) {
+                if (removeIfTagged(display)) {
+                    count++;
+                }
+            }
+        }
+        if (count > 0) {
+            logger.info("Removed %d orphaned damage displays from loaded chunks", count);
+        }
+
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Marks a display as created by the plugin and keeps it out of region
+     * files.
+     *
+     * @param display the display to tag
+     */
+    public void tag(TextDisplay display) {
+        display.setPersistent(false);
+        display.getPersistentDataContainer().set(displayKey, PersistentDataType.BYTE, (byte) 1);
+    }
+
+    /**
+     * Removes the leftovers among the entities of a chunk that just loaded.
+     *
+     * @param event the entities load event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        int count = 0;
+        for (Entity entity : event.getEntities()) {
+            if (entity instanceof TextDisplay display && removeIfTagged(display)) {
+                count++;
+            }
+        }
+        if (count > 0) {
+            Chunk chunk = event.getChunk();
+            logger.info("Removed %d orphaned damage displays from chunk %d, %d in %s", count, chunk.getX(),
+                    chunk.getZ(), chunk.getWorld().getName());
+        }
+    }
+
+    /**
+     * Gets the number of orphaned displays removed since startup.
+     *
+     * @return the removed display count
+     */
+    public long getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Removes a display if it carries the plugin tag.
+     */
+    private boolean removeIfTagged(TextDisplay display) {
+        if (!display.getPersistentDataContainer().has(displayKey, PersistentDataType.BYTE)) {
+            return false;
+        }
+        display.remove();
+        removed++;
+        return true;
+    }
+}
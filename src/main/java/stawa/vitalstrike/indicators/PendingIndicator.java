@@ -0,0 +1,277 @@
+package stawa.vitalstrike.indicators;
+
+import net.kyori.adventure.text.Component;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageEvent;
+
+/**
+ * A damage indicator on its way through the {@link IndicatorPipeline}.
+ *
+ * Only what needs the main thread is captured together with the hit: the
+ * entity, the coordinates of the indicator, the damage formats of the
+ * attacker and the custom styles viewers may have chosen. A pipeline worker
+ * then picks the template, rolling for a critical hit, and renders the text
+ * in the hit's format and in every custom style before the indicator is
+ * committed.
+ */
+public final class PendingIndicator {
+    private static final DamageTemplate[] NO_STYLES = new DamageTemplate[0];
+
+    private final Entity entity;
+    private final int entityId;
+    private final double damage;
+    private final EntityDamageEvent.DamageCause cause;
+    private final Player attacker;
+    private final long source;
+    private final World world;
+    private final double x;
+    private final double y;
+    private final double z;
+    private final long time;
+    private final DamageFormats formats;
+    private final DamageTemplate[] styles;
+    private final boolean summary;
+
+    private Location location;
+    private DamageTemplate template;
+    private DamageTemplate suffix;
+    private double suffixValue;
+    private Component text;
+    private Component[] styleTexts;
+
+    /**
+     * Creates a new PendingIndicator.
+     *
+     * @param entity   the damaged entity
+     * @param damage   the final damage of the hit
+     * @param cause    the damage cause
+     * @param attacker the attacking player, or null
+     * @param source   a key identifying the entity or block that dealt the
+     *                 damage
+     * @param world    the world to display in
+     * @param x        the X coordinate to display at
+     * @param y        the Y coordinate to display at
+     * @param z        the Z coordinate to display at
+     * @param time     the time of the hit in milliseconds
+     * @param formats  the damage formats of the hit
+     * @param styles   the custom styles the hit is also rendered in
+     */
+    public PendingIndicator(Entity entity, double damage, EntityDamageEvent.DamageCause cause, Player attacker,
+            long source, World world, double x, double y, double z, long time, DamageFormats formats,
+            DamageTemplate[] styles) {
+        this.entity = entity;
+        this.entityId = entity.getEntityId();
+        this.damage = damage;
+        this.cause = cause;
+        this.attacker = attacker;
+        this.source = source;
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.time = time;
+        this.formats = formats;
+        this.styles = styles != null ? styles : NO_STYLES;
+        this.summary = false;
+    }
+
+    /**
+     * Creates a summary indicator that stands for several hits of the same
+     * kind, taking the cause, attacker, source, template and styles of the
+     * first one.
+     *
+     * @param first    the first summarized hit, already prepared
+     * @param entity   the entity the summary belongs to, or null if it spans
+     *                 several entities
+     * @param damage   the summed damage of all summarized hits
+     * @param location the location to display at
+     * @param time     the time the summary is shown in milliseconds
+     */
+    PendingIndicator(PendingIndicator first, Entity entity, double damage, Location location, long time) {
+        this.entity = entity;
+        this.entityId = entity != null ? entity.getEntityId() : -1;
+        this.damage = damage;
+        this.cause = first.cause;
+        this.attacker = first.attacker;
+        this.source = first.source;
+        this.world = location.getWorld();
+        this.x = location.getX();
+        this.y = location.getY();
+        this.z = location.getZ();
+        this.location = location;
+        this.time = time;
+        this.formats = first.formats;
+        this.styles = first.styles;
+        this.template = first.template;
+        this.summary = true;
+    }
+
+    /**
+     * Sets a template that is rendered with the given value and appended to
+     * the text. Must be called before the indicator is prepared.
+     */
+    void setSuffix(DamageTemplate suffix, double value) {
+        this.suffix = suffix;
+        this.suffixValue = value;
+    }
+
+    /**
+     * Picks the template of the hit and renders its text, in the hit's format
+     * and in every custom style.
+     */
+    void prepare(ComponentCache componentCache) {
+        if (template == null) {
+            template = formats.resolve(cause);
+        }
+        Component suffixText = suffix != null ? componentCache.render(suffix, suffixValue) : null;
+        text = withSuffix(componentCache.render(template, damage), suffixText);
+        if (styles.length > 0) {
+            Component[] rendered = new Component[styles.length];
+            for (int i = 0; i < styles.length; i++) {
+                rendered[i] = withSuffix(componentCache.render(styles[i], damage), suffixText);
+            }
+            styleTexts = rendered;
+        }
+    }
+
+    /**
+     * Appends the rendered suffix to a text, if there is one.
+     */
+    private static Component withSuffix(Component text, Component suffixText) {
+        return suffixText != null ? text.append(suffixText) : text;
+    }
+
+    /**
+     * Gets the damaged entity.
+     *
+     * @return the entity, or null for a summary spanning several entities
+     */
+    public Entity getEntity() {
+        return entity;
+    }
+
+    /**
+     * Gets the entity id of the damaged entity.
+     *
+     * @return the entity id
+     */
+    public int getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * Gets the final damage of the hit.
+     *
+     * @return the damage
+     */
+    public double getDamage() {
+        return damage;
+    }
+
+    /**
+     * Gets the damage cause.
+     *
+     * @return the damage cause
+     */
+    public EntityDamageEvent.DamageCause getCause() {
+        return cause;
+    }
+
+    /**
+     * Gets the attacking player.
+     *
+     * @return the attacker, or null if the damage was not dealt by a player
+     */
+    public Player getAttacker() {
+        return attacker;
+    }
+
+    /**
+     * Gets the key of the entity or block that dealt the damage.
+     *
+     * @return the source key
+     */
+    public long getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the world the indicator is displayed in.
+     *
+     * @return the world
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets the location the indicator is displayed at. Must be called on the
+     * main thread.
+     *
+     * @return the location
+     */
+    public Location getLocation() {
+        if (location == null) {
+            location = new Location(world, x, y, z);
+        }
+        return location;
+    }
+
+    /**
+     * Gets the time of the hit.
+     *
+     * @return the time in milliseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Checks if this indicator summarizes several hits.
+     *
+     * @return true for summary indicators
+     */
+    public boolean isSummary() {
+        return summary;
+    }
+
+    /**
+     * Gets the compiled damage format the hit is shown with.
+     *
+     * @return the template, or null before the indicator was prepared
+     */
+    public DamageTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Gets the rendered text of the hit.
+     *
+     * @return the text, or null before the indicator was prepared
+     */
+    public Component getText() {
+        return text;
+    }
+
+    /**
+     * Gets the text of the hit rendered in a custom style.
+     *
+     * @param style the custom style
+     * @return the text, or null if the hit was not rendered in the style
+     */
+    public Component getStyleText(DamageTemplate style) {
+        if (styleTexts == null) {
+            return null;
+        }
+        for (int i = 0; i < styles.length; i++) {
+            if (styles[i] == style) {
+                return styleTexts[i];
+            }
+        }
+        return null;
+    }
+}
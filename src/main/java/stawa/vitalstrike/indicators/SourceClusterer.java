@@ -0,0 +1,159 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.bukkit.Location;
+import org.bukkit.event.entity.EntityDamageEvent;
+
+/**
+ * Clusters the hits one source deals to many entities in the same tick, such
+ * as an explosion or a sweep attack, into a single indicator.
+ *
+ * Clustered hits are held back while a committed batch is shown. At the end
+ * of the batch every cluster with more than one victim is emitted as one
+ * summary at the centroid of its victims, showing the total damage and the
+ * victim count. Summaries are queued in the indicator pipeline, so their text
+ * is rendered by a worker like that of any other hit. A cluster with a single
+ * victim is emitted as the original hit.
+ */
+public class SourceClusterer {
+    private final DamageTemplates damageTemplates;
+    private final Consumer<PendingIndicator> emitter;
+    private final Consumer<PendingIndicator> summaryEmitter;
+    private final Map<ClusterKey, List<PendingIndicator>> clusters = new HashMap<>();
+    private boolean flushing;
+
+    private boolean enabled = true;
+    private Set<EntityDamageEvent.DamageCause> causes = EnumSet.noneOf(EntityDamageEvent.DamageCause.class);
+    private DamageTemplate victimCountTemplate;
+
+    /**
+     * Identifies the cluster of a hit by its source, damage cause and world.
+     */
+    private static final class ClusterKey {
+        final long source;
+        final int cause;
+        final UUID world;
+
+        ClusterKey(long source, int cause, UUID world) {
+            this.source = source;
+            this.cause = cause;
+            this.world = world;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ClusterKey key && source == key.source && cause == key.cause
+                    && world.equals(key.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(source) * 31 + cause) * 31 + world.hashCode();
+        }
+    }
+
+    /**
+     * Creates a new SourceClusterer.
+     *
+     * @param damageTemplates the registry the victim count format is compiled
+     *                        in
+     * @param emitter         shows a hit that was held back on its own
+     * @param summaryEmitter  queues a cluster summary to be rendered and shown
+     */
+    public SourceClusterer(DamageTemplates damageTemplates, Consumer<PendingIndicator> emitter,
+            Consumer<PendingIndicator> summaryEmitter) {
+        this.damageTemplates = damageTemplates;
+        this.emitter = emitter;
+        this.summaryEmitter = summaryEmitter;
+    }
+
+    /**
+     * Updates the clustering settings and drops every held back hit.
+     *
+     * @param enabled           false to show every hit on its own
+     * @param causes            the damage causes that are clustered
+     * @param victimCountFormat the format appended to cluster summaries with
+     *                          {@code %d} as the victim count, or null to hide
+     *                          the victim count
+     */
+    public void configure(boolean enabled, Set<EntityDamageEvent.DamageCause> causes, String victimCountFormat) {
+        this.enabled = enabled;
+        this.causes = causes.isEmpty() ? EnumSet.noneOf(EntityDamageEvent.DamageCause.class) : EnumSet.copyOf(causes);
+        this.victimCountTemplate = victimCountFormat != null ? damageTemplates.get(victimCountFormat) : null;
+        clusters.clear();
+    }
+
+    /**
+     * Holds a hit back in the cluster of its source until the batch ends.
+     *
+     * @param hit the prepared hit
+     * @return true if the hit was held back, false if it needs its own
+     *         indicator
+     */
+    public boolean add(PendingIndicator hit) {
+        if (!enabled || flushing || hit.isSummary() || !causes.contains(hit.getCause())) {
+            return false;
+        }
+
+        ClusterKey key = new ClusterKey(hit.getSource(), hit.getCause().ordinal(), hit.getWorld().getUID());
+        clusters.computeIfAbsent(key, k -> new ArrayList<>(4)).add(hit);
+        return true;
+    }
+
+    /**
+     * Emits every cluster of the batch that just ended.
+     */
+    public void flush() {
+        if (clusters.isEmpty()) {
+            return;
+        }
+
+        flushing = true;
+        try {
+            for (List<PendingIndicator> cluster : clusters.values()) {
+                if (cluster.size() == 1) {
+                    emitter.accept(cluster.get(0));
+                } else {
+                    summaryEmitter.accept(summarize(cluster));
+                }
+            }
+        } finally {
+            clusters.clear();
+            flushing = false;
+        }
+    }
+
+    /**
+     * Builds the summary of a cluster at the centroid of its victims.
+     */
+    private PendingIndicator summarize(List<PendingIndicator> cluster) {
+        PendingIndicator first = cluster.get(0);
+        double total = 0;
+        double x = 0;
+        double y = 0;
+        double z = 0;
+        for (PendingIndicator hit : cluster) {
+            Location loc = hit.getLocation();
+            total += hit.getDamage();
+            x += loc.getX();
+            y += loc.getY();
+            z += loc.getZ();
+        }
+        int size = cluster.size();
+        Location centroid = new Location(first.getWorld(), x / size, y / size, z / size);
+
+        PendingIndicator summary = new PendingIndicator(first, null, total, centroid, first.getTime());
+        if (victimCountTemplate != null) {
+            summary.setSuffix(victimCountTemplate, size);
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,186 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Boss;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Decides which damaged entities get damage indicators and combos.
+ *
+ * The rules are compiled once per config load: entity types that can never
+ * be targets, because they are not living or were excluded in the config,
+ * go into a bitset indexed by type ordinal. A hit is then checked against
+ * that bitset, the disabled worlds, the exclusion markers and the optional
+ * player involved and named only filters, without allocating anything.
+ * Disabled worlds are resolved by name to the UIDs of the loaded worlds, and
+ * kept up to date as worlds load and unload, so a hit never compares world
+ * names.
+ *
+ * An entity is excluded by the {@code vitalstrike:no_indicator} PDC marker,
+ * which other plugins can set. A scoreboard tag can be configured as well,
+ * but checking it copies the tags of the entity on every hit.
+ */
+public class TargetRules implements Listener {
+    private static final EntityType[] TYPES = EntityType.values();
+
+    private final JavaPlugin plugin;
+    private final NamespacedKey markerKey;
+
+    private long[] allowedTypes = new long[(TYPES.length + 63) >>> 6];
+    private Set<String> disabledWorlds = Set.of();
+    private Set<UUID> disabledWorldIds = Set.of();
+    private String excludeTag;
+    private boolean playerInvolvedOnly;
+    private boolean namedOnly;
+
+    /**
+     * Creates a new TargetRules.
+     *
+     * @param plugin the plugin that owns the exclusion marker key
+     */
+    public TargetRules(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.markerKey = new NamespacedKey(plugin, "no_indicator");
+        compile(Set.of(), Set.of(), null, false, false);
+    }
+
+    /**
+     * Registers the world load and unload listener.
+     */
+    public void start() {
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Compiles the rules from the config.
+     *
+     * @param excludedTypes      living entity types that never get indicators
+     * @param disabledWorlds     names of the worlds without indicators
+     * @param excludeTag         the scoreboard tag that excludes an entity, or
+     *                           null to only honour the PDC marker
+     * @param playerInvolvedOnly true to only allow hits where the attacker or
+     *                           the target is a player
+     * @param namedOnly          true to only allow custom named entities and
+     *                           bosses
+     */
+    public void compile(Set<EntityType> excludedTypes, Set<String> disabledWorlds, String excludeTag,
+            boolean playerInvolvedOnly, boolean namedOnly) {
+        long[] types = new long[(TYPES.length + 63) >>> 6];
+        for (EntityType type : TYPES) {
+            Class<? extends Entity> entityClass = type.getEntityClass();
+            if (entityClass != null && LivingEntity.class.isAssignableFrom(entityClass)
+                    && !excludedTypes.contains(type)) {
+                types[type.ordinal() >>> 6] |= 1L << type.ordinal();
+            }
+        }
+
+        this.allowedTypes = types;
+        this.disabledWorlds = disabledWorlds.isEmpty() ? Set.of() : new HashSet<>(disabledWorlds);
+        this.disabledWorldIds = resolveWorlds();
+        this.excludeTag = excludeTag == null || excludeTag.isEmpty() ? null : excludeTag;
+        this.playerInvolvedOnly = playerInvolvedOnly;
+        this.namedOnly = namedOnly;
+    }
+
+    /**
+     * Checks if a hit on an entity may show an indicator or count towards a
+     * combo.
+     *
+     * @param target  the damaged entity
+     * @param damager the entity that dealt the damage, or null
+     * @return true if the hit passes every rule
+     */
+    public boolean allows(Entity target, Entity damager) {
+        if (playerInvolvedOnly && !(target instanceof Player) && !(damager instanceof Player)) {
+            return false;
+        }
+        return allowsTarget(target);
+    }
+
+    /**
+     * Checks if an entity may show indicators, regardless of who hit it.
+     *
+     * @param target the damaged entity
+     * @return true if the entity passes every target rule
+     */
+    public boolean allowsTarget(Entity target) {
+        int ordinal = target.getType().ordinal();
+        if ((allowedTypes[ordinal >>> 6] & (1L << ordinal)) == 0) {
+            return false;
+        }
+        if (!disabledWorldIds.isEmpty() && disabledWorldIds.contains(target.getWorld().getUID())) {
+            return false;
+        }
+        if (namedOnly && !(target instanceof Boss) && target.customName() == null) {
+            return false;
+        }
+        if (target.getPersistentDataContainer().has(markerKey, PersistentDataType.BYTE)) {
+            return false;
+        }
+        return excludeTag == null || !target.getScoreboardTags().contains(excludeTag);
+    }
+
+    /**
+     * Disables indicators in a loaded world if its name is disabled.
+     *
+     * @param event the world load event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        if (disabledWorlds.contains(event.getWorld().getName())) {
+            disabledWorldIds = resolveWorlds();
+        }
+    }
+
+    /**
+     * Forgets an unloaded world.
+     *
+     * @param event the world unload event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        if (disabledWorldIds.contains(event.getWorld().getUID())) {
+            disabledWorldIds = resolveWorlds();
+        }
+    }
+
+    /**
+     * Gets the UIDs of the loaded worlds whose names are disabled.
+     */
+    private Set<UUID> resolveWorlds() {
+        if (disabledWorlds.isEmpty()) {
+            return Set.of();
+        }
+        Set<UUID> ids = new HashSet<>();
+        for (World world : plugin.getServer().getWorlds()) {
+            if (disabledWorlds.contains(world.getName())) {
+                ids.add(world.getUID());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Gets the PDC key that excludes an entity when set to a byte.
+     *
+     * @return the exclusion marker key
+     */
+    public NamespacedKey getMarkerKey() {
+        return markerKey;
+    }
+}
@@ -0,0 +1,344 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Spatial index of the online players that have damage indicators enabled.
+ *
+ * Players are bucketed per world by the 16x16x16 chunk section they stand
+ * in, and only move between buckets when they cross a section border. Finding
+ * the viewers of a hit then only visits the few sections around it, instead
+ * of scanning every entity near the hit and filtering for players.
+ *
+ * Riding players do not fire move events, so the players inside a vehicle
+ * or on a mount are moved to their current bucket by a short periodic
+ * resync.
+ */
+public class ViewerIndex implements Listener {
+    private static final Player[] NO_PLAYERS = new Player[0];
+    private static final long RESYNC_INTERVAL_TICKS = 10L;
+
+    private final JavaPlugin plugin;
+    private final Predicate<Player> indicatorsEnabled;
+    private final Map<UUID, Map<Long, List<Player>>> worlds = new HashMap<>();
+    private final Map<UUID, IndexedPlayer> indexed = new HashMap<>();
+    private final List<Player> queryBuffer = new ArrayList<>();
+    private final Location locationBuffer = new Location(null, 0, 0, 0);
+    private BukkitTask resyncTask;
+
+    /**
+     * The bucket a player is currently stored in.
+     */
+    private static class IndexedPlayer {
+        final Player player;
+        UUID worldId;
+        long section;
+
+        IndexedPlayer(Player player, UUID worldId, long section) {
+            this.player = player;
+            this.worldId = worldId;
+            this.section = section;
+        }
+    }
+
+    /**
+     * Creates a new ViewerIndex.
+     *
+     * @param plugin            the plugin the index listens for
+     * @param indicatorsEnabled tells whether a player has damage indicators
+     *                          enabled
+     */
+    public ViewerIndex(JavaPlugin plugin, Predicate<Player> indicatorsEnabled) {
+        this.plugin = plugin;
+        this.indicatorsEnabled = indicatorsEnabled;
+    }
+
+    /**
+     * Registers the index listener, indexes every online player and starts
+     * the resync of riding players.
+     */
+    public void start() {
+        if (resyncTask != null) {
+            return;
+        }
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            refresh(player);
+        }
+        resyncTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::resyncRiders,
+                RESYNC_INTERVAL_TICKS, RESYNC_INTERVAL_TICKS);
+    }
+
+    /**
+     * Stops the resync of riding players.
+     */
+    public void shutdown() {
+        if (resyncTask != null) {
+            resyncTask.cancel();
+            resyncTask = null;
+        }
+    }
+
+    /**
+     * Adds or removes a player depending on whether they currently have damage
+     * indicators enabled. Must be called whenever a player toggles indicators.
+     *
+     * @param player the player to refresh
+     */
+    public void refresh(Player player) {
+        if (player.isOnline() && indicatorsEnabled.test(player)) {
+            move(player, player.getLocation());
+        } else {
+            remove(player);
+        }
+    }
+
+    /**
+     * Finds the indexed players within the given radius of a location.
+     *
+     * @param loc    the center of the search
+     * @param radius the search radius in blocks
+     * @return the players in range, possibly empty
+     */
+    public Player[] getViewers(Location loc, double radius) {
+        Map<Long, List<Player>> sections = worlds.get(loc.getWorld().getUID());
+        if (sections == null || sections.isEmpty()) {
+            return NO_PLAYERS;
+        }
+
+        double x = loc.getX();
+        double y = loc.getY();
+        double z = loc.getZ();
+        double radiusSquared = radius * radius;
+        int minX = (int) Math.floor(x - radius) >> 4;
+        int maxX = (int) Math.floor(x + radius) >> 4;
+        int minY = (int) Math.floor(y - radius) >> 4;
+        int maxY = (int) Math.floor(y + radius) >> 4;
+        int minZ = (int) Math.floor(z - radius) >> 4;
+        int maxZ = (int) Math.floor(z + radius) >> 4;
+
+        queryBuffer.clear();
+        for (int sectionX = minX; sectionX <= maxX; sectionX++) {
+            for (int sectionZ = minZ; sectionZ <= maxZ; sectionZ++) {
+                for (int sectionY = minY; sectionY <= maxY; sectionY++) {
+                    List<Player> bucket = sections.get(sectionKey(sectionX, sectionY, sectionZ));
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (Player player : bucket) {
+                        Location playerLoc = player.getLocation(locationBuffer);
+                        double dx = playerLoc.getX() - x;
+                        double dy = playerLoc.getY() - y;
+                        double dz = playerLoc.getZ() - z;
+                        if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                            queryBuffer.add(player);
+                        }
+                    }
+                }
+            }
+        }
+        return queryBuffer.isEmpty() ? NO_PLAYERS : queryBuffer.toArray(NO_PLAYERS);
+    }
+
+    /**
+     * Reorders viewers so that the ones within the given radius of a location
+     * come first.
+     *
+     * @param viewers the viewers to reorder in place
+     * @param loc     the center of the radius
+     * @param radius  the radius in blocks
+     * @return the number of viewers within the radius
+     */
+    public int partition(Player[] viewers, Location loc, double radius) {
+        double radiusSquared = radius * radius;
+        int near = 0;
+        for (int i = 0; i < viewers.length; i++) {
+            Location playerLoc = viewers[i].getLocation(locationBuffer);
+            double dx = playerLoc.getX() - loc.getX();
+            double dy = playerLoc.getY() - loc.getY();
+            double dz = playerLoc.getZ() - loc.getZ();
+            if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                Player viewer = viewers[near];
+                viewers[near++] = viewers[i];
+                viewers[i] = viewer;
+            }
+        }
+        return near;
+    }
+
+    /**
+     * Gets the number of indexed players.
+     *
+     * @return the indexed player count
+     */
+    public int size() {
+        return indexed.size();
+    }
+
+    /**
+     * Indexes a joining player once their settings are loaded.
+     *
+     * @param event the player join event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        refresh(event.getPlayer());
+    }
+
+    /**
+     * Drops a leaving player from the index.
+     *
+     * @param event the player quit event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        remove(event.getPlayer());
+    }
+
+    /**
+     * Moves a player to another bucket when they cross a section border.
+     *
+     * @param event the player move event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (from.getWorld() == to.getWorld()
+                && from.getBlockX() >> 4 == to.getBlockX() >> 4
+                && from.getBlockY() >> 4 == to.getBlockY() >> 4
+                && from.getBlockZ() >> 4 == to.getBlockZ() >> 4) {
+            return;
+        }
+        if (indexed.containsKey(event.getPlayer().getUniqueId())) {
+            move(event.getPlayer(), to);
+        }
+    }
+
+    /**
+     * Moves a teleporting player to the bucket of their destination.
+     *
+     * @param event the player teleport event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        onPlayerMove(event);
+    }
+
+    /**
+     * Moves a player to the buckets of the world they changed to.
+     *
+     * @param event the player changed world event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        refresh(event.getPlayer());
+    }
+
+    /**
+     * Moves a respawning player to the bucket of their respawn location.
+     *
+     * @param event the player respawn event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        if (indexed.containsKey(event.getPlayer().getUniqueId())) {
+            move(event.getPlayer(), event.getRespawnLocation());
+        }
+    }
+
+    /**
+     * Moves every indexed player that is riding something to the bucket of
+     * their current location.
+     */
+    private void resyncRiders() {
+        for (IndexedPlayer entry : indexed.values()) {
+            Player player = entry.player;
+            if (player.isInsideVehicle()) {
+                move(player, player.getLocation(locationBuffer));
+            }
+        }
+    }
+
+    /**
+     * Stores a player in the bucket of the given location, leaving their
+     * previous bucket.
+     */
+    private void move(Player player, Location loc) {
+        UUID worldId = loc.getWorld().getUID();
+        long section = sectionKey(loc.getBlockX() >> 4, loc.getBlockY() >> 4, loc.getBlockZ() >> 4);
+
+        IndexedPlayer entry = indexed.get(player.getUniqueId());
+        if (entry != null) {
+            if (entry.worldId.equals(worldId) && entry.section == section) {
+                return;
+            }
+            removeFromBucket(entry);
+            entry.worldId = worldId;
+            entry.section = section;
+        } else {
+            entry = new IndexedPlayer(player, worldId, section);
+            indexed.put(player.getUniqueId(), entry);
+        }
+
+        worlds.computeIfAbsent(worldId, id -> new HashMap<>())
+                .computeIfAbsent(section, key -> new ArrayList<>(4))
+                .add(player);
+    }
+
+    /**
+     * Removes a player from the index.
+     */
+    private void remove(Player player) {
+        IndexedPlayer entry = indexed.remove(player.getUniqueId());
+        if (entry != null) {
+            removeFromBucket(entry);
+        }
+    }
+
+    /**
+     * Removes a player from their bucket, dropping the bucket once it is empty.
+     */
+    private void removeFromBucket(IndexedPlayer entry) {
+        Map<Long, List<Player>> sections = worlds.get(entry.worldId);
+        if (sections == null) {
+            return;
+        }
+        List<Player> bucket = sections.get(entry.section);
+        if (bucket == null) {
+            return;
+        }
+        bucket.remove(entry.player);
+        if (bucket.isEmpty()) {
+            sections.remove(entry.section);
+        }
+    }
+
+    /**
+     * Packs chunk section coordinates into a single key.
+     */
+    private static long sectionKey(int sectionX, int sectionY, int sectionZ) {
+        return ((long) (sectionX & 0x3FFFFF) << 42)
+                | ((long) (sectionZ & 0x3FFFFF) << 20)
+                | (sectionY & 0xFFFFF);
+    }
+}
@@ -0,0 +1,166 @@
+package stawa.vitalstrike.indicators;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Limits how many new damage indicators each player is shown.
+ *
+ * Every viewer has a token bucket that refills at a steady rate up to its
+ * burst size, and each indicator shown to the viewer takes a token. A viewer
+ * whose bucket is empty is left out of further indicators until it refills,
+ * while everyone else still sees them. Hits the viewer dealt or received are
+ * always shown and only take a token if one is left, so a spectator of a busy
+ * arena gets bounded traffic without missing their own fight.
+ */
+public class ViewerRateLimiter implements Listener {
+    private final JavaPlugin plugin;
+    private final Map<UUID, Bucket> buckets = new HashMap<>();
+    private boolean started;
+
+    private boolean enabled = true;
+    private double tokensPerMilli = 0.02;
+    private double burst = 40;
+
+    private long skipped;
+
+    /**
+     * The token bucket of one viewer.
+     */
+    private static class Bucket {
+        double tokens;
+        long refilledAt;
+
+        Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+
+    /**
+     * Creates a new ViewerRateLimiter.
+     *
+     * @param plugin the plugin that owns the quit listener
+     */
+    public ViewerRateLimiter(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Registers the listener that forgets viewers who leave.
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Forgets every bucket.
+     */
+    public void shutdown() {
+        buckets.clear();
+    }
+
+    /**
+     * Updates the rate limit settings and refills every bucket.
+     *
+     * @param enabled   false to show every indicator to every viewer
+     * @param perSecond the number of indicators a viewer is shown per second
+     *                  on average
+     * @param burst     the number of indicators a viewer can be shown at once
+     */
+    public void configure(boolean enabled, double perSecond, int burst) {
+        this.enabled = enabled;
+        this.tokensPerMilli = Math.max(0.0, perSecond) / 1000.0;
+        this.burst = Math.max(1, burst);
+        buckets.clear();
+    }
+
+    /**
+     * Takes a token from every viewer of an indicator and leaves out the
+     * viewers that have none left.
+     *
+     * @param viewers  the players in range of the indicator
+     * @param attacker the attacking player, or null
+     * @param victim   the damaged entity, or null
+     * @param now      the current time in milliseconds
+     * @return the viewers that may see the indicator, the given array itself
+     *         if nobody was left out
+     */
+    public Player[] filter(Player[] viewers, Player attacker, Entity victim, long now) {
+        if (!enabled) {
+            return viewers;
+        }
+
+        Player[] allowed = null;
+        int count = 0;
+        for (int i = 0; i < viewers.length; i++) {
+            Player viewer = viewers[i];
+            boolean involved = viewer == attacker || viewer == victim;
+            if (take(viewer, now) || involved) {
+                if (allowed != null) {
+                    allowed[count] = viewer;
+                }
+                count++;
+            } else {
+                skipped++;
+                if (allowed == null) {
+                    allowed = Arrays.copyOf(viewers, viewers.length);
+                }
+            }
+        }
+        return allowed == null ? viewers : Arrays.copyOf(allowed, count);
+    }
+
+    /**
+     * Gets the number of times a viewer was left out of an indicator.
+     *
+     * @return the skipped view count
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Forgets the bucket of a player who left.
+     *
+     * @param event the player quit event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        buckets.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Refills the bucket of a viewer and takes a token from it.
+     */
+    private boolean take(Player viewer, long now) {
+        Bucket bucket = buckets.get(viewer.getUniqueId());
+        if (bucket == null) {
+            bucket = new Bucket(burst, now);
+            buckets.put(viewer.getUniqueId(), bucket);
+        } else if (now > bucket.refilledAt) {
+            bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.refilledAt) * tokensPerMilli);
+            bucket.refilledAt = now;
+        }
+
+        if (bucket.tokens < 1.0) {
+            return false;
+        }
+        bucket.tokens -= 1.0;
+        return true;
+    }
+}
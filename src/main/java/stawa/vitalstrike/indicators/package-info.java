@@ -0,0 +1,63 @@
+/**
+ * Damage indicator rendering and animation for VitalStrike plugin.
+ * 
+ * This package contains the machinery that turns damage events into the
+ * floating text displays shown to players. It keeps the per-hit work small so
+ * that busy combat areas do not flood the server scheduler or the network.
+ * 
+ * <h2>Features</h2>
+ * <ul>
+ * <li>Shared animation engine for all live indicators</li>
+ * <li>Configurable movement direction and fade timings</li>
+ * <li>Client-interpolated keyframe animation</li>
+ * <li>Recycled display entities through per-world pools</li>
+ * <li>Damage formats compiled once per configuration load</li>
+ * <li>Bounded cache of rendered damage text</li>
+ * <li>Chunk section index of players that see indicators</li>
+ * <li>Rapid hits on one target merged into a single indicator</li>
+ * <li>Indicators mounted on moving targets</li>
+ * <li>Distance based detail tiers for indicator viewers</li>
+ * <li>Per-chunk indicator budget with farm suppression</li>
+ * <li>Indicator fidelity adapted to the server tick time</li>
+ * <li>Indicator text rendered off the main thread and committed at tick end</li>
+ * <li>Damage over time summed into periodic summaries</li>
+ * <li>Explosion and sweep hits clustered by source</li>
+ * <li>Per-target lanes that recycle live indicators</li>
+ * <li>Tagged, non-persistent displays with orphan cleanup</li>
+ * <li>Target rules compiled into an entity type bitset</li>
+ * <li>Animation curves baked per config with linear, ease-out and bounce easing</li>
+ * <li>Server-wide live indicator budget with priority eviction</li>
+ * <li>Per-viewer indicator rate limit</li>
+ * </ul>
+ * 
+ * <h2>Key Components</h2>
+ * <ul>
+ * <li>{@link stawa.vitalstrike.indicators.IndicatorAnimator Shared indicator animation engine}</li>
+ * <li>{@link stawa.vitalstrike.indicators.AnimationSettings Animation timing settings}</li>
+ * <li>{@link stawa.vitalstrike.indicators.Easing Animation easing curves}</li>
+ * <li>{@link stawa.vitalstrike.indicators.DisplayPool Per-world display entity pool}</li>
+ * <li>{@link stawa.vitalstrike.indicators.DamageTemplate Compiled damage format}</li>
+ * <li>{@link stawa.vitalstrike.indicators.DamageTemplates Damage format template registry}</li>
+ * <li>{@link stawa.vitalstrike.indicators.DamageFormats Per-cause compiled damage formats}</li>
+ * <li>{@link stawa.vitalstrike.indicators.ComponentCache Rendered damage text cache}</li>
+ * <li>{@link stawa.vitalstrike.indicators.ViewerIndex Indicator viewer spatial index}</li>
+ * <li>{@link stawa.vitalstrike.indicators.BurstTracker Per-target burst coalescing}</li>
+ * <li>{@link stawa.vitalstrike.indicators.IntKeyTable Open addressing entity id table}</li>
+ * <li>{@link stawa.vitalstrike.indicators.ChunkDensityLimiter Per-chunk indicator density limiter}</li>
+ * <li>{@link stawa.vitalstrike.indicators.FidelityGovernor Tick time based fidelity governor}</li>
+ * <li>{@link stawa.vitalstrike.indicators.FidelityTier Indicator fidelity tiers}</li>
+ * <li>{@link stawa.vitalstrike.indicators.IndicatorPipeline Capture, prepare and commit pipeline}</li>
+ * <li>{@link stawa.vitalstrike.indicators.PendingIndicator Captured hit awaiting its indicator}</li>
+ * <li>{@link stawa.vitalstrike.indicators.DamageOverTimeAccumulator Damage over time accumulator}</li>
+ * <li>{@link stawa.vitalstrike.indicators.SourceClusterer Same tick source clustering}</li>
+ * <li>{@link stawa.vitalstrike.indicators.LaneAllocator Per-target indicator lanes}</li>
+ * <li>{@link stawa.vitalstrike.indicators.OrphanedDisplaySweeper Orphaned display sweeper}</li>
+ * <li>{@link stawa.vitalstrike.indicators.TargetRules Compiled target exclusion rules}</li>
+ * <li>{@link stawa.vitalstrike.indicators.IndicatorBudget Global live indicator budget}</li>
+ * <li>{@link stawa.vitalstrike.indicators.IndicatorPriority Indicator budget priorities}</li>
+ * <li>{@link stawa.vitalstrike.indicators.ViewerRateLimiter Per-viewer token bucket rate limiter}</li>
+ * </ul>
+ * 
+ * @see stawa.vitalstrike.VitalStrike
+ */
+package stawa.vitalstrike.indicators;
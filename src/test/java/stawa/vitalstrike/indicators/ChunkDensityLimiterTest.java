@@ -0,0 +1,99 @@
+package stawa.vitalstrike.indicators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+class ChunkDensityLimiterTest {
+    private static final long T = 10_000L;
+    private static final Player[] NO_VIEWERS = new Player[0];
+
+    private final World world = TestObjects.world();
+    private final Location here = new Location(world, 8, 64, 8);
+    private final ChunkDensityLimiter limiter = new ChunkDensityLimiter(null, null, null,
+            new DamageTemplates(MiniMessage.miniMessage()), null);
+
+    /**
+     * Configures silent mode, so refused hits never need a summary display.
+     */
+    private void configure(int maxLive, double maxRate, long lifetime) {
+        limiter.configure(true, maxLive, maxRate, false, "%d %.0f", 2000L, lifetime);
+    }
+
+    private boolean admit(Location loc, long now) {
+        return limiter.admit(loc, 1.0, now, NO_VIEWERS);
+    }
+
+    @Test
+    void liveIndicatorsAreCappedPerChunk() {
+        configure(2, 1000, 1500L);
+
+        assertTrue(admit(here, T));
+        assertTrue(admit(here, T));
+        assertFalse(admit(here, T));
+        assertTrue(admit(new Location(world, 40, 64, 8), T));
+        assertTrue(admit(here, T + 1500L));
+    }
+
+    @Test
+    void chunkIsSuppressedAboveTheRate() {
+        configure(100, 10, 0L);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(admit(here, T));
+        }
+        assertFalse(admit(here, T));
+        assertEquals(1, limiter.getSuppressedCount());
+    }
+
+    @Test
+    void suppressionHoldsUntilTheRateFallsBelowHalf() {
+        configure(100, 10, 0L);
+        for (int i = 0; i < 11; i++) {
+            admit(here, T);
+        }
+
+        // 11 events of the last window plus this one.
+        assertFalse(admit(here, T + 1000L));
+        // 11 * 0.4 + 2 = 6.4, below the threshold but not below half of it.
+        assertFalse(admit(here, T + 1600L));
+        // 11 * 0.1 + 3 = 4.1
+        assertTrue(admit(here, T + 1900L));
+        assertEquals(0, limiter.getSuppressedCount());
+    }
+
+    @Test
+    void quietChunkForgetsItsRate() {
+        configure(100, 10, 0L);
+        for (int i = 0; i < 11; i++) {
+            admit(here, T);
+        }
+
+        assertTrue(admit(here, T + 2000L));
+    }
+
+    @Test
+    void worldsAreTrackedSeparately() {
+        configure(1, 1000, 1500L);
+
+        assertTrue(admit(here, T));
+        assertTrue(admit(new Location(TestObjects.world(), 8, 64, 8), T));
+        assertFalse(admit(here, T));
+    }
+
+    @Test
+    void disabledLimiterAdmitsEverything() {
+        limiter.configure(false, 1, 1, false, "%d %.0f", 2000L, 1500L);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(admit(here, T));
+        }
+    }
+}
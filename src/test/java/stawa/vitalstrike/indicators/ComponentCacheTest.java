@@ -0,0 +1,106 @@
+package stawa.vitalstrike.indicators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import org.junit.jupiter.api.Test;
+
+class ComponentCacheTest {
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+
+    private final DamageTemplate template = DamageTemplate.compile(1, "<red>%.1f", MINI_MESSAGE);
+    private final DamageTemplate other = DamageTemplate.compile(2, "<blue>%.1f", MINI_MESSAGE);
+
+    @Test
+    void valuesRoundingToTheSameTextShareOneComponent() {
+        ComponentCache cache = new ComponentCache(8);
+
+        Component first = cache.render(template, 12.25);
+        Component second = cache.render(template, 12.26);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void templatesAndSignsAreKeptApart() {
+        ComponentCache cache = new ComponentCache(8);
+
+        Component red = cache.render(template, 5.0);
+        Component blue = cache.render(other, 5.0);
+        Component negative = cache.render(template, -5.0);
+
+        assertNotSame(red, blue);
+        assertNotSame(red, negative);
+        assertEquals(3, cache.size());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        ComponentCache cache = new ComponentCache(2);
+
+        Component a = cache.render(template, 1.0);
+        Component b = cache.render(template, 2.0);
+        assertSame(a, cache.render(template, 1.0));
+        cache.render(template, 3.0);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertSame(a, cache.render(template, 1.0));
+        assertNotSame(b, cache.render(template, 2.0));
+    }
+
+    @Test
+    void uncacheableTemplatesBypassTheCache() {
+        ComponentCache cache = new ComponentCache(8);
+        DamageTemplate constant = DamageTemplate.compile(3, "<gold>Hit", MINI_MESSAGE);
+
+        cache.render(constant, 1.0);
+        cache.render(constant, 2.0);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    void zeroSizeDisablesCaching() {
+        ComponentCache cache = new ComponentCache(0);
+
+        cache.render(template, 1.0);
+        cache.render(template, 1.0);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void resizeDropsEveryEntry() {
+        ComponentCache cache = new ComponentCache(8);
+        Component before = cache.render(template, 1.0);
+
+        cache.resize(4);
+
+        assertEquals(0, cache.size());
+        assertEquals(4, cache.getMaxSize());
+        assertNotSame(before, cache.render(template, 1.0));
+    }
+
+    @Test
+    void hitRateCountsServedRenders() {
+        ComponentCache cache = new ComponentCache(8);
+
+        cache.render(template, 1.0);
+        cache.render(template, 1.0);
+        cache.render(template, 1.0);
+        cache.render(template, 2.0);
+
+        assertEquals(0.5, cache.getHitRate(), 1e-9);
+    }
+}
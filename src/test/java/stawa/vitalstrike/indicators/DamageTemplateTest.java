@@ -0,0 +1,141 @@
+package stawa.vitalstrike.indicators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+import org.junit.jupiter.api.Test;
+
+class DamageTemplateTest {
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+
+    private static DamageTemplate compile(String format) {
+        return DamageTemplate.compile(0, format, MINI_MESSAGE);
+    }
+
+    private static String plain(Component component) {
+        return PlainTextComponentSerializer.plainText().serialize(component);
+    }
+
+    @Test
+    void constantFormatReusesItsComponent() {
+        DamageTemplate template = compile("<gold>Ouch");
+
+        assertFalse(template.isCacheable());
+        assertSame(template.render(1.0), template.render(2.0));
+        assertEquals("Ouch", plain(template.render(1.0)));
+    }
+
+    @Test
+    void slottedFormatFillsTheParsedSlot() {
+        DamageTemplate template = compile("<red>%.1f</red> dmg");
+
+        assertTrue(template.isCacheable());
+        assertEquals(1, template.getDecimals());
+        assertEquals("12.3 dmg", plain(template.render(12.25)));
+        assertEquals("0.5 dmg", plain(template.render(0.5)));
+    }
+
+    @Test
+    void integerSpecifierHasNoDecimals() {
+        DamageTemplate template = compile("<red>%d");
+
+        assertTrue(template.isCacheable());
+        assertEquals(0, template.getDecimals());
+        assertEquals("8", plain(template.render(7.6)));
+    }
+
+    @Test
+    void perCharacterFormatIsSplicedAndParsedPerRender() {
+        DamageTemplate template = compile("<gradient:red:blue>%.1f</gradient>");
+
+        assertTrue(template.isCacheable());
+        assertEquals("12.3", plain(template.render(12.25)));
+        assertEquals("99.0", plain(template.render(99.0)));
+    }
+
+    @Test
+    void legacyCodesAndEscapedPercentSignsAreConverted() {
+        DamageTemplate template = compile("100%% &c%.0f");
+
+        assertTrue(template.isCacheable());
+        assertEquals("100% 13", plain(template.render(12.6)));
+    }
+
+    @Test
+    void unknownSpecifierFallsBackToStringFormat() {
+        DamageTemplate template = compile("%s dmg");
+
+        assertFalse(template.isCacheable());
+        assertEquals("1.5 dmg", plain(template.render(1.5)));
+    }
+
+    @Test
+    void secondSpecifierOfSingleSlotFormatFallsBack() {
+        DamageTemplate template = compile("%.0f of %.0f");
+
+        assertFalse(template.isCacheable());
+    }
+
+    @Test
+    void twoSlotFormatFillsBothSlotsInOrder() {
+        DamageTemplate template = DamageTemplate.compile(0, "<gray>x%d hits, <red>%.0f</red> dmg", MINI_MESSAGE, 2);
+
+        assertFalse(template.isCacheable());
+        assertEquals("x3 hits, 42 dmg", plain(template.render(3, 41.6)));
+    }
+
+    @Test
+    void twoSlotSplicedFormatFillsBothSlots() {
+        DamageTemplate template = DamageTemplate.compile(0, "<gradient:red:blue>%d / %.1f</gradient>",
+                MINI_MESSAGE, 2);
+
+        assertEquals("3 / 41.6", plain(template.render(3, 41.6)));
+    }
+
+    @Test
+    void twoSlotFormatWithOneSpecifierIgnoresTheSecondValue() {
+        DamageTemplate template = DamageTemplate.compile(0, "<gray>%d hits", MINI_MESSAGE, 2);
+
+        assertEquals("3 hits", plain(template.render(3, 9)));
+    }
+
+    @Test
+    void scaleDamageRoundsHalfAwayFromZero() {
+        DamageTemplate template = compile("%.1f");
+
+        assertEquals(123L, template.scaleDamage(12.25));
+        assertEquals(-123L, template.scaleDamage(-12.25));
+        assertEquals(0L, template.scaleDamage(0.04));
+    }
+
+    @Test
+    void formatDecimalRoundsHalfUp() {
+        assertEquals("12.3", DamageTemplate.formatDecimal(12.25, 1));
+        assertEquals("-4", DamageTemplate.formatDecimal(-3.5, 0));
+        assertEquals("7", DamageTemplate.formatDecimal(7.0, 0));
+    }
+
+    @Test
+    void formatDecimalPadsTheFraction() {
+        assertEquals("0.05", DamageTemplate.formatDecimal(0.05, 2));
+        assertEquals("1234.500", DamageTemplate.formatDecimal(1234.5, 3));
+        assertEquals("2.000000001", DamageTemplate.formatDecimal(2.000000001, 9));
+    }
+
+    @Test
+    void formatDecimalDropsTheSignOfZero() {
+        assertEquals("0.00", DamageTemplate.formatDecimal(-0.001, 2));
+    }
+
+    @Test
+    void formatDecimalFallsBackForHugeValues() {
+        assertEquals("1000000000.00", DamageTemplate.formatDecimal(1.0e9, 2));
+        assertEquals("Infinity", DamageTemplate.formatDecimal(Double.POSITIVE_INFINITY, 1));
+    }
+}
@@ -0,0 +1,96 @@
+package stawa.vitalstrike.indicators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FidelityGovernorTest {
+    private final FidelityGovernor governor = new FidelityGovernor(null, TestObjects.logger());
+
+    @BeforeEach
+    void configure() {
+        governor.configure(true, 45.0, 35.0, 3, FidelityTier.STATIC);
+    }
+
+    private void sample(double mspt, int times) {
+        for (int i = 0; i < times; i++) {
+            governor.sample(mspt);
+        }
+    }
+
+    @Test
+    void stepsDownAfterAFullStreak() {
+        sample(50.0, 2);
+        assertEquals(FidelityTier.FULL, governor.getTier());
+
+        sample(50.0, 1);
+        assertEquals(FidelityTier.KEYFRAME, governor.getTier());
+        assertEquals(50.0, governor.getMspt(), 1e-9);
+    }
+
+    @Test
+    void brokenStreakStartsOver() {
+        sample(50.0, 2);
+        sample(40.0, 1);
+        sample(50.0, 2);
+
+        assertEquals(FidelityTier.FULL, governor.getTier());
+    }
+
+    @Test
+    void eachStepNeedsANewStreak() {
+        sample(50.0, 5);
+        assertEquals(FidelityTier.KEYFRAME, governor.getTier());
+
+        sample(50.0, 1);
+        assertEquals(FidelityTier.STATIC, governor.getTier());
+    }
+
+    @Test
+    void neverStepsBelowTheLowestTier() {
+        sample(80.0, 30);
+
+        assertEquals(FidelityTier.STATIC, governor.getTier());
+    }
+
+    @Test
+    void stepsUpBelowTheLowerThreshold() {
+        sample(50.0, 6);
+        assertEquals(FidelityTier.STATIC, governor.getTier());
+
+        sample(30.0, 3);
+        assertEquals(FidelityTier.KEYFRAME, governor.getTier());
+        sample(30.0, 3);
+        assertEquals(FidelityTier.FULL, governor.getTier());
+        sample(30.0, 3);
+        assertEquals(FidelityTier.FULL, governor.getTier());
+    }
+
+    @Test
+    void tickTimeBetweenThresholdsHoldsTheTier() {
+        sample(50.0, 3);
+        sample(40.0, 20);
+
+        assertEquals(FidelityTier.KEYFRAME, governor.getTier());
+    }
+
+    @Test
+    void disabledGovernorOnlyRecordsTheTickTime() {
+        governor.configure(false, 45.0, 35.0, 1, FidelityTier.OFF);
+
+        sample(90.0, 10);
+
+        assertEquals(FidelityTier.FULL, governor.getTier());
+        assertEquals(90.0, governor.getMspt(), 1e-9);
+    }
+
+    @Test
+    void configureRestoresFullFidelity() {
+        sample(50.0, 3);
+
+        configure();
+
+        assertEquals(FidelityTier.FULL, governor.getTier());
+    }
+}
@@ -0,0 +1,193 @@
+package stawa.vitalstrike.indicators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntKeyTableTest {
+    private static final int CAPACITY = 16;
+
+    /**
+     * One int value per slot, kept in step like the owners of real tables do.
+     */
+    private static final class Values implements IntKeyTable.Values {
+        int[] values;
+        int cleared;
+
+        @Override
+        public void resize(int capacity, int[] relocated) {
+            int[] old = values;
+            values = new int[capacity];
+            if (relocated != null) {
+                for (int i = 0; i < relocated.length; i++) {
+                    if (relocated[i] >= 0) {
+                        values[relocated[i]] = old[i];
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void move(int from, int to) {
+            values[to] = values[from];
+        }
+
+        @Override
+        public void clear(int slot) {
+            values[slot] = 0;
+            cleared++;
+        }
+    }
+
+    private final Values values = new Values();
+    private final IntKeyTable table = new IntKeyTable(CAPACITY, values);
+
+    private void put(int key, int value) {
+        int slot = table.find(key);
+        if (slot < 0) {
+            slot = table.insert(key);
+        }
+        values.values[slot] = value;
+    }
+
+    private int get(int key) {
+        int slot = table.find(key);
+        return slot < 0 ? -1 : values.values[slot];
+    }
+
+    /**
+     * Finds keys that all start probing at the same slot.
+     */
+    private static int[] collidingKeys(int count) {
+        int[] keys = new int[count];
+        int home = -1;
+        int found = 0;
+        for (int key = 0; found < count; key++) {
+            IntKeyTable probe = new IntKeyTable(CAPACITY, new Values());
+            int slot = probe.insert(key);
+            if (home < 0) {
+                home = slot;
+            }
+            if (slot == home) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+
+    @Test
+    void findsInsertedKeys() {
+        put(7, 70);
+        put(-3, 30);
+
+        assertEquals(70, get(7));
+        assertEquals(30, get(-3));
+        assertEquals(-1, table.find(8));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void deleteShiftsCollidingKeysBack() {
+        int[] keys = collidingKeys(4);
+        for (int key : keys) {
+            put(key, key + 1);
+        }
+
+        table.delete(table.find(keys[1]));
+
+        assertEquals(-1, table.find(keys[1]));
+        assertEquals(keys[0] + 1, get(keys[0]));
+        assertEquals(keys[2] + 1, get(keys[2]));
+        assertEquals(keys[3] + 1, get(keys[3]));
+        assertEquals(3, table.size());
+        assertEquals(1, values.cleared);
+    }
+
+    @Test
+    void deleteLeavesNoGapInTheProbeChain() {
+        int[] keys = collidingKeys(3);
+        for (int key : keys) {
+            put(key, key + 1);
+        }
+        int first = table.find(keys[0]);
+
+        table.delete(first);
+
+        // The next key of the chain moved into the freed home slot.
+        assertEquals(keys[1], table.keyAt(first));
+        int freed = 0;
+        for (int slot = 0; slot < table.capacity(); slot++) {
+            if (table.keyAt(slot) == IntKeyTable.EMPTY) {
+                freed++;
+            }
+        }
+        assertEquals(table.capacity() - 2, freed);
+    }
+
+    @Test
+    void growsAndKeepsValues() {
+        for (int key = 0; key < CAPACITY; key++) {
+            put(key * 31, key);
+        }
+
+        assertTrue(table.capacity() > CAPACITY);
+        for (int key = 0; key < CAPACITY; key++) {
+            assertEquals(key, get(key * 31));
+        }
+    }
+
+    @Test
+    void removeIfChecksShiftedEntries() {
+        int[] keys = collidingKeys(5);
+        for (int key : keys) {
+            put(key, key % 2 == 0 ? 2 : 1);
+        }
+
+        table.removeIf(slot -> values.values[slot] == 2);
+
+        for (int key : keys) {
+            assertEquals(key % 2 == 0 ? -1 : 1, get(key));
+        }
+    }
+
+    @Test
+    void clearForgetsEveryKey() {
+        put(1, 10);
+        put(2, 20);
+
+        table.clear();
+
+        assertEquals(0, table.size());
+        assertEquals(-1, table.find(1));
+        assertEquals(0, values.values[0]);
+    }
+
+    @Test
+    void matchesAHashMapUnderChurn() {
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(200) - 100;
+            if (random.nextInt(3) == 0) {
+                int slot = table.find(key);
+                if (slot >= 0) {
+                    table.delete(slot);
+                }
+                expected.remove(key);
+            } else {
+                put(key, i);
+                expected.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), table.size());
+        for (int key = -100; key < 100; key++) {
+            assertEquals((int) expected.getOrDefault(key, -1), get(key));
+        }
+    }
+}
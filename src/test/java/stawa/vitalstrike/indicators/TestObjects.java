@@ -0,0 +1,84 @@
+package stawa.vitalstrike.indicators;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import stawa.vitalstrike.logger.VitalLogger;
+
+/**
+ * Minimal stand-ins for server objects. Only the ids and loggers are
+ * answered, every other method returns the default value of its return type.
+ */
+final class TestObjects {
+    private TestObjects() {
+    }
+
+    /**
+     * Creates a world with a random UID.
+     */
+    static World world() {
+        return create(World.class, Map.of("getUID", UUID.randomUUID()));
+    }
+
+    /**
+     * Creates a player with a random unique id.
+     */
+    static Player player() {
+        return create(Player.class, Map.of("getUniqueId", UUID.randomUUID()));
+    }
+
+    /**
+     * Creates a logger backed by a silent anonymous JDK logger.
+     */
+    static VitalLogger logger() {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        return new VitalLogger(create(Plugin.class, Map.of("getLogger", logger)));
+    }
+
+    private static <T> T create(Class<T> type, Map<String, Object> answers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (self, method, args) -> switch (method.getName()) {
+                    case "equals" -> self == args[0];
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "toString" -> type.getSimpleName() + answers.values();
+                    default -> answers.containsKey(method.getName()) ? answers.get(method.getName())
+                            : defaultValue(method.getReturnType());
+                });
+        return type.cast(proxy);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
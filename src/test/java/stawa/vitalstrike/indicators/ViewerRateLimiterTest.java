@@ -0,0 +1,101 @@
+package stawa.vitalstrike.indicators;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ViewerRateLimiterTest {
+    private static final long T = 10_000L;
+
+    private final ViewerRateLimiter limiter = new ViewerRateLimiter(null);
+    private final Player a = TestObjects.player();
+    private final Player b = TestObjects.player();
+    private final Player c = TestObjects.player();
+
+    @BeforeEach
+    void configure() {
+        limiter.configure(true, 10, 3);
+    }
+
+    private Player[] filter(long now, Player... viewers) {
+        return limiter.filter(viewers, null, null, now);
+    }
+
+    private void exhaust(Player viewer, long now) {
+        for (int i = 0; i < 3; i++) {
+            filter(now, viewer);
+        }
+    }
+
+    @Test
+    void burstIsShownThenViewerIsLeftOut() {
+        Player[] viewers = { a };
+        for (int i = 0; i < 3; i++) {
+            assertSame(viewers, limiter.filter(viewers, null, null, T));
+        }
+
+        assertEquals(0, filter(T, a).length);
+        assertEquals(1, limiter.getSkipped());
+    }
+
+    @Test
+    void bucketRefillsAtTheConfiguredRate() {
+        exhaust(a, T);
+
+        assertEquals(0, filter(T + 50L, a).length);
+        assertEquals(1, filter(T + 100L, a).length);
+        assertEquals(0, filter(T + 100L, a).length);
+    }
+
+    @Test
+    void refillIsCappedAtTheBurst() {
+        exhaust(a, T);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, filter(T + 60_000L, a).length);
+        }
+        assertEquals(0, filter(T + 60_000L, a).length);
+    }
+
+    @Test
+    void onlyViewersWithoutTokensAreLeftOut() {
+        exhaust(a, T);
+
+        assertArrayEquals(new Player[] { b, c }, filter(T, a, b, c));
+        assertArrayEquals(new Player[] { b, c }, filter(T, b, a, c));
+    }
+
+    @Test
+    void involvedViewersAreAlwaysShown() {
+        exhaust(a, T);
+        exhaust(b, T);
+
+        Player[] viewers = { a, b, c };
+        assertSame(viewers, limiter.filter(viewers, a, b, T));
+        assertEquals(0, limiter.getSkipped());
+    }
+
+    @Test
+    void disabledLimiterShowsEveryone() {
+        limiter.configure(false, 10, 3);
+        Player[] viewers = { a, b };
+
+        for (int i = 0; i < 10; i++) {
+            assertSame(viewers, limiter.filter(viewers, null, null, T));
+        }
+        assertEquals(0, limiter.getSkipped());
+    }
+
+    @Test
+    void configureRefillsEveryBucket() {
+        exhaust(a, T);
+
+        configure();
+
+        assertEquals(1, filter(T, a).length);
+    }
+}